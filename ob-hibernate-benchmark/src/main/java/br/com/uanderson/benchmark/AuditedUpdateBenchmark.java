@@ -0,0 +1,64 @@
+package br.com.uanderson.benchmark;
+
+import br.com.uanderson.entities.Employee;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Updates por segundo de um campo auditado pelo Envers (Employee.salary: update + linha no ob_employees_AUD + REVINFO)
+ * x um campo não auditado (Employee.age: só o update), com e sem JDBC batching (hibernate.jdbc.batch_size).
+ * <p>
+ * Cada operação altera 50 employees em uma transação, o score é por employee (@OperationsPerInvocation).
+ * Cada valor do @Param roda em um fork próprio, então a SessionFactory é criada com o batch_size informado.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+@OperationsPerInvocation(AuditedUpdateBenchmark.EMPLOYEES)
+public class AuditedUpdateBenchmark {
+    static final int EMPLOYEES = 50;
+
+    @Param({"1", "50"})//1 = sem batching
+    String jdbcBatchSize;
+
+    List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("hibernate.jdbc.batch_size", jdbcBatchSize);//antes da criação da SessionFactory
+        BenchmarkDatabase.configure();
+        ids = BenchmarkDatabase.seed("audit", EMPLOYEES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public void updateAuditedField() {
+        updateAll(employee -> employee.setSalary(employee.getSalary() + 1));
+    }
+
+    @Benchmark
+    public void updateNonAuditedField() {
+        updateAll(employee -> employee.setAge(employee.getAge() == 18 ? 19 : 18));
+    }
+
+    private void updateAll(Consumer<Employee> change) {
+        TransactionTemplate.executeWithoutResult(session -> session
+                .createQuery("from Employee e where e.id in :ids", Employee.class)
+                .setParameter("ids", ids)
+                .list()
+                .forEach(change));//dirty checking no commit: updates (e linhas _AUD) em batch
+    }
+
+}//class
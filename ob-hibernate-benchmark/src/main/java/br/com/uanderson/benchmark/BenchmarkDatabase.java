@@ -0,0 +1,85 @@
+package br.com.uanderson.benchmark;
+
+import br.com.uanderson.entities.Employee;
+import br.com.uanderson.entities.EmployeeCategory;
+import br.com.uanderson.util.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Banco H2 em memória (modo MySQL) para os benchmarks.
+ * <p>
+ * O HibernateUtil do ob-hibernate-config usa as propriedades de sistema hibernate.* no lugar das do hibernate.cfg.xml,
+ * então basta defini-las antes da primeira chamada ao HibernateUtil. Todo o resto (pool, cache de segundo nível,
+ * Envers, interceptor) é a configuração real.
+ */
+public final class BenchmarkDatabase {
+    private static final Map<String, String> H2_PROPERTIES = Map.of(
+            "hibernate.connection.url", "jdbc:h2:mem:ob-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,VALUE",
+            "hibernate.connection.driver_class", "org.h2.Driver",
+            "hibernate.connection.username", "sa",
+            "hibernate.connection.password", "",
+            "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+            "hibernate.hbm2ddl.auto", "create",
+            "hibernate.hbm2ddl.import_files", "",//o import.sql do ob-hibernate-config tem comentários '#' que o H2 não aceita
+            "hibernate.show_sql", "false"
+    );
+    private static final EmployeeCategory[] CATEGORIES = EmployeeCategory.values();
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Aponta o Hibernate para o H2, a não ser que outro banco tenha sido informado (-Dhibernate.connection.url=...)
+     */
+    public static void configure() {
+        if (System.getProperty("hibernate.connection.url") != null) {
+            return;
+        }
+        H2_PROPERTIES.forEach((key, value) -> {
+            if (System.getProperty(key) == null) {
+                System.setProperty(key, value);
+            }
+        });
+    }
+
+    /**
+     * Insere employees com idades de 18 a 65 anos e as categorias alternadas
+     *
+     * @param prefix prefixo do email, que é único
+     * @return ids inseridos
+     */
+    public static List<Long> seed(String prefix, int employees) {
+        return TransactionTemplate.execute(session -> {
+            List<Employee> batch = new ArrayList<>();
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < employees; i++) {
+                Employee employee = newEmployee(prefix + i);
+                employee.setCategory(CATEGORIES[i % CATEGORIES.length]);
+                session.persist(employee);
+                batch.add(employee);
+                if (batch.size() == 50) {
+                    session.flush();
+                    session.clear();//não acumula os employees no contexto de persistência
+                    batch.forEach(persisted -> ids.add(persisted.getId()));
+                    batch.clear();
+                }
+            }
+            session.flush();
+            batch.forEach(persisted -> ids.add(persisted.getId()));
+            return ids;
+        });
+    }
+
+    public static Employee newEmployee(String emailPrefix) {
+        int hash = Math.abs(emailPrefix.hashCode());
+        return new Employee("Bench", "Mark " + hash % 100, emailPrefix + "@benchmark.com",
+                18 + hash % 48, 2_000.0 + hash % 80_000, hash % 2 == 0,
+                LocalDate.of(1970 + hash % 30, 1 + hash % 12, 1 + hash % 28), LocalDateTime.now());
+    }
+
+}//class
@@ -0,0 +1,40 @@
+package br.com.uanderson.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Main do benchmarks.jar: aceita as mesmas opções do JMH (ex: um regex com os benchmarks, -f, -wi, -i)
+ * e sempre liga o GCProfiler, que informa a taxa de alocação por operação (gc.alloc.rate.norm, em bytes/op).
+ * As propriedades -Dhibernate.* são repassadas para os forks (sobrescrevem o H2 do BenchmarkDatabase).
+ * <pre>
+ * java -jar target/benchmarks.jar                          # todos
+ * java -jar target/benchmarks.jar EmployeeFinderBenchmark  # só os finders
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        List<String> hibernateProperties = new ArrayList<>();
+        System.getProperties().forEach((key, value) -> {
+            if (key.toString().startsWith("hibernate.")) {
+                hibernateProperties.add("-D" + key + "=" + value);
+            }
+        });
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend(hibernateProperties.toArray(String[]::new))
+                .build();
+
+        new Runner(options).run();
+    }
+
+}//class
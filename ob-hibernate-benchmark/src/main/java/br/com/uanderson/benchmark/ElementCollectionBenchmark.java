@@ -0,0 +1,75 @@
+package br.com.uanderson.benchmark;
+
+import br.com.uanderson.dao.EmployeeDAO;
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.entities.Employee;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adicionar 1 apelido a um employee com 500 (Employee.nickNames, @ElementCollection com @OrderColumn):
+ * <ul>
+ *     <li>addNickName: altera a lista gerenciada, o Hibernate grava só a posição nova (1 insert)</li>
+ *     <li>replaceNickNames: troca a lista inteira (setNickNames), o Hibernate recria a coleção (1 delete + 501 inserts),
+ *     o mesmo que acontecia em toda alteração quando a lista era um bag (sem @OrderColumn)</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ElementCollectionBenchmark {
+    private static final int NICK_NAMES = 500;
+
+    EmployeeDAO dao;
+    Long id;
+    List<String> nickNames;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.configure();
+        dao = new EmployeeDAOImpl();
+        Employee employee = BenchmarkDatabase.newEmployee("nicknames");
+        for (int i = 0; i < NICK_NAMES; i++) {
+            employee.getNickNames().add("nick" + i);
+        }
+        id = dao.create(employee).getId();
+        nickNames = List.copyOf(employee.getNickNames());
+    }
+
+    /**
+     * Volta para os 500 apelidos (remove o último, 1 delete), fora da medição
+     */
+    @TearDown(Level.Invocation)
+    public void restoreNickNames() {
+        dao.updateNickNames(id, nickNames);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public boolean addNickName() {
+        return dao.addNickName(id, "new");
+    }
+
+    @Benchmark
+    public void replaceNickNames() {
+        TransactionTemplate.executeWithoutResult(session -> {
+            Employee employee = session.find(Employee.class, id);
+            List<String> replaced = new ArrayList<>(employee.getNickNames());
+            replaced.add("new");
+            employee.setNickNames(replaced);//outra instância: a coleção antiga é descartada
+        });
+    }
+
+}//class
@@ -0,0 +1,65 @@
+package br.com.uanderson.benchmark;
+
+import br.com.uanderson.dao.EmployeeDAO;
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.entities.Employee;
+import br.com.uanderson.util.HibernateUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * create, update e deleteById do EmployeeDAOImpl (uma transação por operação)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeCrudBenchmark {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    EmployeeDAO dao;
+    Employee toUpdate;
+    Long toDelete;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.configure();
+        dao = new EmployeeDAOImpl();
+        toUpdate = dao.create(BenchmarkDatabase.newEmployee("update"));
+    }
+
+    /**
+     * Cada deleteById precisa de um registro novo. Level.Invocation tem custo próprio, mas é desprezível perto de uma
+     * transação com o banco, e fica fora da medição.
+     */
+    @Setup(Level.Invocation)
+    public void createEmployeeToDelete() {
+        toDelete = dao.create(BenchmarkDatabase.newEmployee("delete" + SEQUENCE.incrementAndGet())).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public Employee create() {
+        return dao.create(BenchmarkDatabase.newEmployee("create" + SEQUENCE.incrementAndGet()));
+    }
+
+    @Benchmark
+    public Employee update() {
+        toUpdate.setSalary(toUpdate.getSalary() + 1);//sempre muda, senão o merge não gera update
+        return dao.update(toUpdate);
+    }
+
+    @Benchmark
+    public boolean deleteById() {
+        return dao.deleteById(toDelete);
+    }
+
+}//class
@@ -0,0 +1,136 @@
+package br.com.uanderson.benchmark;
+
+import br.com.uanderson.dao.EmployeeDAO;
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.dto.EmployeeDTO;
+import br.com.uanderson.entities.Employee;
+import br.com.uanderson.entities.EmployeeCategory;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.QueryRegistry;
+import br.com.uanderson.util.TransactionTemplate;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finders do EmployeeDAOImpl e a mesma consulta (idade entre X e Y e categoria) escrita com
+ * HQL, Criteria, SQL nativo e named query.
+ * <p>
+ * ageBetweenAndCategoryCriteria é o findByAgeBetweenAndCategoryCriteria antigo (CriteriaQuery montado e traduzido
+ * para SQL a cada chamada) e ageBetweenAndCategoryNamedQuery o atual (named query do QueryRegistry). No fim de cada
+ * fork imprime a taxa de acerto do cache de planos.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeFinderBenchmark {
+    private static final int EMPLOYEES = 1_000;
+    private static final int AGE_MIN = 30;
+    private static final int AGE_MAX = 40;
+    private static final EmployeeCategory CATEGORY = EmployeeCategory.SENIOR;
+
+    EmployeeDAO dao;
+    Long id;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.configure();
+        dao = new EmployeeDAOImpl();
+        id = BenchmarkDatabase.seed("finder", EMPLOYEES).get(EMPLOYEES / 2);
+        HibernateUtil.warmUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        QueryRegistry.PlanCacheStats stats = QueryRegistry.planCacheStats();
+        System.out.printf("%nCache de planos: %d acertos, %d falhas, taxa de acerto %.2f%%%n",
+                stats.hits(), stats.misses(), stats.hitRatio() * 100);
+        HibernateUtil.shutdown();
+    }
+
+    // ======================= MESMA CONSULTA, 4 FORMAS ===============================
+
+    @Benchmark
+    public List<Employee> ageBetweenAndCategoryHql() {
+        return TransactionTemplate.execute(session -> session
+                .createQuery("from Employee e where e.age between :ageMin and :ageMax and e.category = :category", Employee.class)
+                .setParameter("ageMin", AGE_MIN)
+                .setParameter("ageMax", AGE_MAX)
+                .setParameter("category", CATEGORY)
+                .list());
+    }
+
+    @Benchmark
+    public List<Employee> ageBetweenAndCategoryCriteria() {
+        return TransactionTemplate.execute(session -> {
+            CriteriaBuilder builder = session.getCriteriaBuilder();
+            CriteriaQuery<Employee> criteriaQuery = builder.createQuery(Employee.class);
+            Root<Employee> root = criteriaQuery.from(Employee.class);
+            criteriaQuery.select(root).where(builder.and(
+                    builder.between(root.get("age"), AGE_MIN, AGE_MAX),
+                    builder.equal(root.get("category"), CATEGORY)));
+            return session.createQuery(criteriaQuery).list();
+        });
+    }
+
+    @Benchmark
+    public List<Employee> ageBetweenAndCategoryNative() {
+        return TransactionTemplate.execute(session -> session
+                .createNativeQuery("SELECT * FROM ob_employees WHERE age BETWEEN :ageMin AND :ageMax AND category = :category",
+                        Employee.class)
+                .setParameter("ageMin", AGE_MIN)
+                .setParameter("ageMax", AGE_MAX)
+                .setParameter("category", CATEGORY.name())
+                .list());
+    }
+
+    @Benchmark
+    public List<Employee> ageBetweenAndCategoryNamedQuery() {
+        return dao.findByAgeBetweenAndCategoryCriteria(AGE_MIN, AGE_MAX, CATEGORY);//QueryRegistry
+    }
+
+    // ======================= FINDERS DO DAO ===============================
+
+    @Benchmark
+    public List<Employee> findAll() {
+        return dao.findAll();
+    }
+
+    @Benchmark
+    public List<Employee> findAllNative() {
+        return dao.findAllNative();
+    }
+
+    @Benchmark
+    public List<Employee> findMostPaid() {
+        return dao.findMostPaid();//named query com cache de consultas
+    }
+
+    @Benchmark
+    public Employee findById() {
+        return dao.findById(id);//cache de segundo nível
+    }
+
+    @Benchmark
+    public EmployeeDTO findByIdNative() {
+        return dao.findByIdNative(id);
+    }
+
+    @Benchmark
+    public List<Employee> findByAge() {
+        return dao.findByAge(AGE_MIN);
+    }
+
+    @Benchmark
+    public Long count() {
+        return dao.count();
+    }
+
+}//class
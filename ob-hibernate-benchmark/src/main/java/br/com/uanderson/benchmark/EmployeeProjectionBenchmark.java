@@ -0,0 +1,82 @@
+package br.com.uanderson.benchmark;
+
+import br.com.uanderson.dao.EmployeeDAO;
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.dto.EmployeeProjectionColumns;
+import br.com.uanderson.dto.EmployeeProjectionDTO;
+import br.com.uanderson.entities.Employee;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projeções (id, email, age) x a entidade completa.
+ * <p>
+ * Com @OperationsPerInvocation cada operação é uma linha: gc.alloc.rate.norm é a quantidade de bytes alocados por
+ * linha lida e o score é a quantidade de linhas por segundo.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+@OperationsPerInvocation(EmployeeProjectionBenchmark.EMPLOYEES)
+public class EmployeeProjectionBenchmark {
+    static final int EMPLOYEES = 1_000;
+
+    EmployeeDAO dao;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.configure();
+        dao = new EmployeeDAOImpl();
+        BenchmarkDatabase.seed("projection", EMPLOYEES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public List<EmployeeProjectionDTO> findAllProjectionNative() {
+        return dao.findAllProjectionNative();//DTO mapeado pelo Hibernate
+    }
+
+    /**
+     * Antes: a implementação anterior do findAllProjectionEmployeeNative (List<Object[]> copiada para uma segunda lista)
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<EmployeeProjectionDTO> objectArrayCopy() {
+        return TransactionTemplate.execute(session -> {
+            List<Object[]> employees = session.createNativeQuery("SELECT id, email, age from ob_employees").list();
+            List<EmployeeProjectionDTO> employeeDtos = new ArrayList<>();
+            for (Object[] employee : employees) {
+                employeeDtos.add(new EmployeeProjectionDTO((Long) employee[0], (String) employee[1], (Integer) employee[2]));
+            }
+            return employeeDtos;
+        });
+    }
+
+    @Benchmark
+    public List<EmployeeProjectionDTO> findAllProjectionEmployeeNative() {
+        return dao.findAllProjectionEmployeeNative();//TupleTransformer
+    }
+
+    @Benchmark
+    public EmployeeProjectionColumns findAllProjectionColumns() {
+        return dao.findAllProjectionColumns();//arrays de primitivos
+    }
+
+    @Benchmark
+    public List<Employee> findAllEntities() {
+        return dao.findAllNative();//referência: a entidade completa
+    }
+
+}//class
@@ -0,0 +1,95 @@
+package br.com.uanderson.benchmark;
+
+import br.com.uanderson.dao.CarDAO;
+import br.com.uanderson.dao.impl.CarDAOImpl;
+import br.com.uanderson.entities.Car;
+import br.com.uanderson.jdbc.Coche;
+import br.com.uanderson.jdbc.CocheJdbcRepository;
+import br.com.uanderson.jdbc.RowMapper;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura de todas as linhas de uma tabela: CarDAOImpl.findAll() (HQL "from Car", entidades gerenciadas + cache de
+ * segundo nível) x CocheJdbcRepository (pool HikariCP próprio, PreparedStatement, RowMapper).
+ * <p>
+ * jdbcFindAllCars lê a mesma tabela ob_cars e cria os mesmos objetos Car que o Hibernate, então a diferença é só o
+ * custo do Hibernate. jdbcFindAllCoches é o findAll() do repositório na tabela coches, com a mesma quantidade de linhas.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JdbcReadBenchmark {
+    private static final String CARS_SQL = "SELECT id, manufacturer, cc, release_year FROM ob_cars";
+    private static final RowMapper<Car> CAR_MAPPER = (resultSet, rowNum) -> new Car(
+            resultSet.getLong(1), resultSet.getString(2), resultSet.getDouble(3), resultSet.getInt(4));
+
+    @Param({"100", "10000"})
+    int rows;
+
+    CarDAO carDAO;
+    CocheJdbcRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.configure();
+        carDAO = new CarDAOImpl();
+        TransactionTemplate.executeWithoutResult(session -> {
+            session.createNativeMutationQuery("""
+                    CREATE TABLE coches (
+                        id            INT AUTO_INCREMENT PRIMARY KEY,
+                        modelo        VARCHAR(255) NOT NULL,
+                        fabricante    VARCHAR(255) NOT NULL,
+                        num_cilindros INT          NOT NULL,
+                        num_cv        DOUBLE       NOT NULL
+                    )""").executeUpdate();
+            for (int i = 0; i < rows; i++) {
+                session.persist(new Car(null, "Fabricante " + i % 20, 1.0 + i % 30 / 10.0, 1990 + i % 35));
+                session.createNativeMutationQuery(
+                                "INSERT INTO coches (modelo, fabricante, num_cilindros, num_cv) VALUES (?1, ?2, ?3, ?4)")
+                        .setParameter(1, "Modelo " + i)
+                        .setParameter(2, "Fabricante " + i % 20)
+                        .setParameter(3, 4 + i % 3 * 2)
+                        .setParameter(4, 100.0 + i % 300)
+                        .executeUpdate();
+                if (i % 50 == 49) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+
+        repository = CocheJdbcRepository.pooled(System.getProperty("hibernate.connection.url"),
+                System.getProperty("hibernate.connection.username"), System.getProperty("hibernate.connection.password"),
+                4, CocheJdbcRepository.DEFAULT_FETCH_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        repository.close();
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public List<Car> hibernateFindAll() {
+        return carDAO.findAll();
+    }
+
+    @Benchmark
+    public List<Car> jdbcFindAllCars() {
+        return repository.query(CARS_SQL, CAR_MAPPER);
+    }
+
+    @Benchmark
+    public List<Coche> jdbcFindAllCoches() {
+        return repository.findAll();
+    }
+
+}//class
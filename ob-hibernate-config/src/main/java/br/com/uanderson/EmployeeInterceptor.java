@@ -1,30 +1,71 @@
 package br.com.uanderson;
 
-import br.com.uanderson.entities.Employee;
+import br.com.uanderson.util.EntityOperationEvents.Operation;
+import br.com.uanderson.util.EntityOperationMetrics;
 import org.hibernate.CallbackException;
 import org.hibernate.Interceptor;
+import org.hibernate.Transaction;
 import org.hibernate.type.Type;
 
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
 public class EmployeeInterceptor implements Interceptor {//EmptyInterceptor está deprecated hibernate 6+
+    /*
+        Interceptor por sessão (hibernate.session_factory.session_scoped_interceptor no hibernate.cfg.xml): o Hibernate
+        cria uma instância para cada sessão aberta, então a fila de operações pendentes abaixo pertence só a esta sessão.
+        Duas sessões na mesma thread não misturam as operações, e a fila é coletada junto com a sessão.
+        Ele só anota a operação (sem I/O e sem lock): a contagem, a latência e a publicação dos eventos ficam no
+        EntityOperationMetrics e no EntityOperationEvents. Para ver as operações no console:
+        EntityOperationEvents.subscribe(EntityOperationEvents.LOG)
+     */
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();//operações aguardando o flush desta sessão
+    private long flushStartNanos;
 
     @Override
     public boolean onPersist(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) throws CallbackException {
+        //id null: GenerationType.IDENTITY, o insert é executado agora, dentro do persist() e fora de um flush
+        pending.add(new Pending(entity, id, Operation.PERSIST,
+                id == null ? EntityOperationMetrics.UNKNOWN_LATENCY : System.nanoTime()));
+        return false;//o estado não foi alterado
+    }
+
+    @Override
+    public boolean onFlushDirty(Object entity, Object id, Object[] currentState, Object[] previousState,
+                                String[] propertyNames, Type[] types) throws CallbackException {
+        pending.add(new Pending(entity, id, Operation.UPDATE, System.nanoTime()));
+        return false;
+    }
 
-        if (entity instanceof Employee){
-            System.out.println("Salvando um empregado!!");
-            ((Employee) entity).setLastName("Editado dentro do Interceptor");
+    @Override
+    public void onRemove(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) throws CallbackException {
+        pending.add(new Pending(entity, id, Operation.DELETE, System.nanoTime()));
+    }
 
-            for (int i = 0; i < propertyNames.length; i++) {
-                System.out.println(propertyNames[i]);
-            }
+    @Override
+    public void preFlush(Iterator<Object> entities) throws CallbackException {
+        flushStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void postFlush(Iterator<Object> entities) throws CallbackException {
+        //os statements das operações anotadas já foram executados. A latência é a parte do flush que gravou a operação:
+        //do início do flush (ou do dirty check, que acontece dentro dele) até o fim, sem o tempo entre o persist e o flush
+        long now = System.nanoTime();
+        for (Pending operation = pending.poll(); operation != null; operation = pending.poll()) {
+            long latencyNanos = operation.startNanos() == EntityOperationMetrics.UNKNOWN_LATENCY
+                    ? EntityOperationMetrics.UNKNOWN_LATENCY
+                    : now - Math.max(operation.startNanos(), flushStartNanos);
+            EntityOperationMetrics.record(operation.entity(), operation.id(), operation.operation(), latencyNanos);
         }
+    }
+
+    @Override
+    public void afterTransactionCompletion(Transaction tx) {
+        pending.clear();//operações desta sessão que não chegaram a um flush (ex: rollback)
+    }
 
-        return Interceptor.super.onPersist(entity, id, state, propertyNames, types);
-        /*
-            Esse intercptor é global, ou seja é executado para toda operação de persistência, independente da class onde é
-            executada. Para captar operações de uma entidade especifica deve fazer a verificação e trabalhar dentro da condição
-            de verificação.
-         */
+    private record Pending(Object entity, Object id, Operation operation, long startNanos) {
     }
 
 }//class
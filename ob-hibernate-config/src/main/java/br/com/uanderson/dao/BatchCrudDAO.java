@@ -0,0 +1,64 @@
+package br.com.uanderson.dao;
+
+import br.com.uanderson.dto.BatchResult;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * CRUD de uma entidade, unitário e em lote.
+ * <p>
+ * As operações em lote (createAll, updateAll, deleteAllById) usam UMA transação para todas as entidades, e não uma
+ * por entidade. A cada N entidades (hibernate.jdbc.batch_size) fazem flush + detach das entidades do lote: os statements
+ * vão em batches JDBC e o contexto de persistência não cresce com a quantidade de entidades.
+ * <p>
+ * Se um lote falhar a PersistenceException chega a quem chamou: a transação é desfeita, ou, em chamada aninhada,
+ * marcada como rollback-only para quem a abriu.
+ * <p>
+ * Entidades com GenerationType.IDENTITY (Car, Company, Direction, Project, Employee) não têm os inserts em batch:
+ * o Hibernate executa cada insert no persist para obter o id. Os updates e deletes são agrupados normalmente.
+ *
+ * @param <T>  entidade
+ * @param <ID> tipo do id
+ */
+public interface BatchCrudDAO<T, ID> {
+
+    List<T> findAll();
+
+    T findById(ID id);
+
+    T create(T entity);
+
+    T update(T entity);
+
+    boolean deleteById(ID id);
+
+    /**
+     * Insere todas as entidades em uma transação, os ids são preenchidos nos objetos informados
+     *
+     * @param entities entidades novas (sem id)
+     * @return tempo de cada lote, ou BatchResult.empty() se a coleção está vazia
+     * @throws jakarta.persistence.PersistenceException se algum lote falhar
+     */
+    BatchResult createAll(Collection<T> entities);
+
+    /**
+     * Grava o estado de todas as entidades (merge) em uma transação. O estado atual de cada lote é carregado com
+     * um único select (ou do cache de segundo nível), e não com um select por entidade.
+     *
+     * @param entities entidades já existentes (com id)
+     * @return tempo de cada lote, ou BatchResult.empty() se a coleção está vazia
+     * @throws jakarta.persistence.PersistenceException se algum lote falhar
+     */
+    BatchResult updateAll(Collection<T> entities);
+
+    /**
+     * Remove as entidades em uma transação, com um select por lote. Diferente de um delete em HQL, passa pelo
+     * ciclo de vida normal (cascade, Envers, interceptores). Ids inexistentes são ignorados.
+     *
+     * @param ids
+     * @return tempo de cada lote e quantidade removida, ou BatchResult.empty() se a coleção está vazia
+     * @throws jakarta.persistence.PersistenceException se algum lote falhar
+     */
+    BatchResult deleteAllById(Collection<ID> ids);
+}
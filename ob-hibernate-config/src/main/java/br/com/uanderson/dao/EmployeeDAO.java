@@ -1,11 +1,16 @@
 package br.com.uanderson.dao;
 
 import br.com.uanderson.dto.EmployeeDTO;
+import br.com.uanderson.dto.EmployeeProjectionColumns;
 import br.com.uanderson.dto.EmployeeProjectionDTO;
+import br.com.uanderson.dto.KeysetPage;
 import br.com.uanderson.entities.Employee;
 import br.com.uanderson.entities.EmployeeCategory;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * DAO - Data Access Object
@@ -28,6 +33,45 @@ public interface EmployeeDAO {
     List<Employee> findAllWithCriteria();
 
     List<Employee> findAllNative();
+
+    /**
+     * Recupera uma página de empregados carregando as associações definidas no grafo (@NamedEntityGraph do Employee).
+     * As associações do grafo vêm no mesmo select (join) e as demais coleções são carregadas em lote (@BatchSize)
+     * quando acessadas dentro da mesma sessão. Assim o número de consultas não depende do tamanho da página.
+     * @param graphName nome do grafo: Employee.summary, Employee.withCars ou Employee.withProjects
+     * @param page número da página, começando em 0
+     * @param size quantidade de empregados por página
+     * @return lista de Employee ordenada pelo id
+     */
+    List<Employee> findAllWithGraph(String graphName, int page, int size);
+
+    /**
+     * Percorre todos os empregados em modo streaming, sem carregar a tabela inteira em memória.
+     * Utiliza ScrollableResults com os valores padrão de fetch size e de limpeza da sessão.
+     * @param action callback executado para cada Employee
+     * @return quantidade de empregados percorridos
+     */
+    long forEach(Consumer<Employee> action);
+
+    /**
+     * Percorre todos os empregados em modo streaming, sem carregar a tabela inteira em memória.
+     * Utiliza ScrollableResults
+     * @param fetchSize quantidade de linhas que o driver JDBC busca por round-trip
+     * @param clearEvery a cada quantas linhas a sessão é limpa (session.clear()), mantendo o consumo de memória constante
+     * @param action callback executado para cada Employee. O Employee fica detached depois do clear, não guarde referências
+     * @return quantidade de empregados percorridos
+     */
+    long forEach(int fetchSize, int clearEvery, Consumer<Employee> action);
+
+    /**
+     * Mesmo comportamento do forEach, mas exposto como Stream.
+     * A Stream mantém a sessão e o cursor abertos, então DEVE ser fechada (try-with-resources).
+     * @param fetchSize quantidade de linhas que o driver JDBC busca por round-trip
+     * @param clearEvery a cada quantas linhas a sessão é limpa (session.clear())
+     * @return Stream de Employee
+     */
+    Stream<Employee> streamAll(int fetchSize, int clearEvery);
+
     List<Employee> findMostPaid();
 
     /**
@@ -35,8 +79,20 @@ public interface EmployeeDAO {
      * @return
      */
     List<EmployeeProjectionDTO> findAllProjectionNative();
+
+    /**
+     * Mesma projeção do findAllProjectionNative, mas cada linha do JDBC é convertida direto no EmployeeProjectionDTO
+     * (TupleTransformer), sem uma List<Object[]> intermediária copiada para uma segunda lista.
+     * @return lista de EmployeeProjectionDTO
+     */
     List<EmployeeProjectionDTO> findAllProjectionEmployeeNative();
 
+    /**
+     * Projeção (id, email, age) em arrays paralelos de tipos primitivos, lidos direto do ResultSet (sem boxing)
+     * @return colunas com um elemento por employee, ordenadas pelo id
+     */
+    EmployeeProjectionColumns findAllProjectionColumns();
+
     /**
      * Devolve o numéro de employees na base de dados
      * @return Long
@@ -57,6 +113,14 @@ public interface EmployeeDAO {
      */
     Employee findByIdEager(Long id);
 
+    /**
+     * Busca um empregado pelo seu Id com o agregado completo: direction, company, cars, projects e as element collections.
+     * Cada coleção é buscada em um select separado (join fetch de uma coleção por vez) no mesmo contexto de persistência,
+     * então as linhas transferidas crescem de forma linear (1 + cars + projects + ...) e não multiplicada (cars x projects x ...)
+     * @return um Employee com todas as coleções inicializadas ou null se não encontrar ninguém
+     */
+    Employee findByIdFullAggregate(Long id);
+
     /**
      * Busca um empregado pelo seu Id
      * Utiliza JPA Criteria API
@@ -91,6 +155,15 @@ public interface EmployeeDAO {
      */
     List<Employee> findByLastNameLikeCriteria(String lastName);
 
+    /**
+     * Filtra pelo sobrenome, paginado por keyset em (lastName, id)
+     * @param lastName
+     * @param cursor nextCursor da página anterior ou null para a primeira página
+     * @param size quantidade de empregados por página (maior que zero)
+     * @return página de empregados ordenada por lastName e id
+     */
+    KeysetPage<Employee> findByLastNameLikeCriteria(String lastName, String cursor, int size);
+
     /**
      * Filtra pela idade. Maior que determinado número
      * @param age
@@ -98,6 +171,15 @@ public interface EmployeeDAO {
      */
     List<Employee> findByAgeGreaterCriteria(Integer age);
 
+    /**
+     * Filtra pela idade. Maior que determinado número, paginado por keyset em (age, id)
+     * @param age
+     * @param cursor nextCursor da página anterior ou null para a primeira página
+     * @param size quantidade de empregados por página (maior que zero)
+     * @return página de empregados ordenada por age e id
+     */
+    KeysetPage<Employee> findByAgeGreaterCriteria(Integer age, String cursor, int size);
+
     /**
      * Filtra por um intervalo de idades entre dois números
      * @param min
@@ -106,6 +188,16 @@ public interface EmployeeDAO {
      */
     List<Employee> findByAgeBetweenCriteria(Integer min, Integer max);
 
+    /**
+     * Filtra por um intervalo de idades entre dois números, paginado por keyset em (age, id)
+     * @param min
+     * @param max
+     * @param cursor nextCursor da página anterior ou null para a primeira página
+     * @param size quantidade de empregados por página (maior que zero)
+     * @return página de empregados ordenada por age e id
+     */
+    KeysetPage<Employee> findByAgeBetweenCriteria(Integer min, Integer max, String cursor, int size);
+
     /**
      * Filtra por um intervalo de idades entre dois números e por uma Categoria especifica
      * @param ageMin
@@ -115,6 +207,18 @@ public interface EmployeeDAO {
      */
     List<Employee> findByAgeBetweenAndCategoryCriteria(Integer ageMin, Integer ageMax, EmployeeCategory category);
 
+    /**
+     * Filtra por um intervalo de idades e por uma Categoria especifica, paginado por keyset em (age, id)
+     * @param ageMin
+     * @param ageMax
+     * @param category
+     * @param cursor nextCursor da página anterior ou null para a primeira página
+     * @param size quantidade de empregados por página (maior que zero)
+     * @return página de empregados ordenada por age e id
+     */
+    KeysetPage<Employee> findByAgeBetweenAndCategoryCriteria(Integer ageMin, Integer ageMax, EmployeeCategory category,
+                                                             String cursor, int size);
+
 
     /**
      * Inseri um novo registro na tabela employees
@@ -140,4 +244,82 @@ public interface EmployeeDAO {
      */
     boolean deleteById(Long id);
 
+    // ======================= OPERAÇÕES EM LOTE ===============================
+    /*
+        Executadas no banco com um único update/delete (bulk HQL), sem carregar os employees: 1 round-trip no lugar de
+        N selects + N writes. Por não passarem pelo contexto de persistência, os eventos do Hibernate não são disparados:
+        nada de Envers (sem revisão em Employee_AUD), EmployeeInterceptor ou cascade.
+        O Hibernate invalida as regiões do Employee (entidade, coleções e consultas) no cache de segundo nível, e os
+        employees afetados que já estavam na sessão (chamada aninhada) são desanexados (detach) para não ficarem desatualizados.
+     */
+
+    /**
+     * Deleta os employees informados junto com as linhas das suas coleções (nicknames, phones, cars, projects...)
+     *
+     * @param ids
+     * @return quantidade de employees deletados
+     * @throws jakarta.persistence.PersistenceException se o statement falhar
+     */
+    int deleteByIds(Collection<Long> ids);
+
+    /**
+     * Aumenta o salário de todos os employees da categoria
+     *
+     * @param category
+     * @param pct percentual de aumento, ex: 10 para 10% (valores negativos reduzem o salário, mínimo -100; NaN e infinito são recusados)
+     * @return quantidade de employees atualizados
+     * @throws jakarta.persistence.PersistenceException se o statement falhar
+     */
+    int raiseSalaryByCategory(EmployeeCategory category, double pct);
+
+    /**
+     * Altera a categoria de todos os employees com idade no intervalo
+     *
+     * @param ageMin
+     * @param ageMax
+     * @param category nova categoria
+     * @return quantidade de employees atualizados
+     * @throws jakarta.persistence.PersistenceException se o statement falhar
+     */
+    int updateCategoryWhereAgeBetween(Integer ageMin, Integer ageMax, EmployeeCategory category);
+
+    // ======================= ALTERAÇÃO DAS COLEÇÕES (nickNames, postalCode) ===============================
+    /*
+        As listas têm @OrderColumn: o Hibernate compara cada posição com o snapshot carregado e grava só as linhas que
+        mudaram (insert/update/delete por posição). Os métodos abaixo alteram a lista gerenciada pela sessão, elemento a
+        elemento. Substituir a lista (employee.setNickNames(novaLista) + merge) descarta a coleção antiga e o Hibernate
+        apaga e reinsere todas as linhas.
+     */
+
+    /**
+     * Adiciona um apelido no fim da lista: 1 insert, independente da quantidade de apelidos
+     *
+     * @param id
+     * @param nickName
+     * @return false se o employee não existe
+     * @throws jakarta.persistence.PersistenceException se a gravação falhar
+     */
+    boolean addNickName(Long id, String nickName);
+
+    /**
+     * Deixa os apelidos do employee iguais aos informados, gravando só as posições alteradas:
+     * update nas posições com outro valor, insert das posições novas e delete das que sobraram no fim
+     *
+     * @param id
+     * @param nickNames lista completa, na ordem desejada
+     * @return false se o employee não existe
+     * @throws jakarta.persistence.PersistenceException se a gravação falhar
+     */
+    boolean updateNickNames(Long id, List<String> nickNames);
+
+    /**
+     * Mesmo que o updateNickNames, para os códigos postais
+     *
+     * @param id
+     * @param postalCodes lista completa, na ordem desejada
+     * @return false se o employee não existe
+     * @throws jakarta.persistence.PersistenceException se a gravação falhar
+     */
+    boolean updatePostalCodes(Long id, List<Integer> postalCodes);
+
 }
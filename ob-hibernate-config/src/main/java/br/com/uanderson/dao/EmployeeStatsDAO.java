@@ -0,0 +1,25 @@
+package br.com.uanderson.dao;
+
+import br.com.uanderson.dto.EmployeeStatsDTO;
+
+import java.util.List;
+
+/**
+ * Estatísticas calculadas pelo banco sobre a tabela ob_employees: as telas de resumo (dashboards) recebem só
+ * os agregados, sem carregar a lista de employees para calcular em Java.
+ */
+public interface EmployeeStatsDAO {
+    /**
+     * Quantidade, mínimo, máximo, média e percentis (p50, p90, p99) do salário e da idade agrupados por
+     * categoria, estado civil (married) e company. Um único select (GROUP BY) calcula todos os grupos.
+     *
+     * @return um EmployeeStatsDTO por grupo, ordenado por categoria, married e company
+     */
+    List<EmployeeStatsDTO> findStatsByCategoryMarriedAndCompany();
+
+    /**
+     * Descarta os agregados guardados em cache (se houver), o próximo find vai ao banco
+     */
+    void invalidate();
+
+}
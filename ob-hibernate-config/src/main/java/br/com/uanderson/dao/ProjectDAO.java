@@ -2,13 +2,8 @@ package br.com.uanderson.dao;
 
 import br.com.uanderson.entities.Project;
 
-import java.util.List;
-
-public interface ProjectDAO {
-
-    List<Project> findAll();
-    Project findById(Long id);
-    Project create(Project project);
-    Project update(Project project);
-    boolean deleteById(Long id);
+/**
+ * findAll, findById, create, update, deleteById e as operações em lote vêm do BatchCrudDAO
+ */
+public interface ProjectDAO extends BatchCrudDAO<Project, Long> {
 }
@@ -0,0 +1,57 @@
+package br.com.uanderson.dao;
+
+import br.com.uanderson.dto.EntityRevision;
+import br.com.uanderson.dto.KeysetPage;
+import br.com.uanderson.dto.PropertyChange;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura do histórico das entidades auditadas pelo Envers (Company, Project, Employee, Car, Direction).
+ * Cada método faz um número fixo de consultas, independente da quantidade de revisões ou de ids:
+ * o AuditReader.find por revisão faz uma consulta para cada uma.
+ * <p>
+ * Índices recomendados para as tabelas _AUD em readmes/envers-para-auditoria.md.
+ */
+public interface RevisionHistoryDAO {
+
+    /**
+     * Revisões de uma entidade em ordem crescente, paginadas por keyset no número da revisão
+     * (uma consulta por página, com o join no REVINFO)
+     *
+     * @param entityClass classe auditada
+     * @param id          id da entidade
+     * @param cursor      nextCursor da página anterior ou null para a primeira página
+     * @param size        quantidade de revisões por página
+     * @return página de revisões, inclusive a de remoção (DEL) se houver
+     */
+    <T> KeysetPage<EntityRevision<T>> findRevisions(Class<T> entityClass, Long id, String cursor, int size);
+
+    /**
+     * Estado de várias entidades em um momento do passado: a última revisão de cada id com data menor ou igual
+     * ao timestamp. Uma consulta no REVINFO para achar a revisão e uma única consulta para todos os ids.
+     *
+     * @param entityClass classe auditada
+     * @param ids         ids das entidades
+     * @param timestamp   momento desejado
+     * @return id -> estado no momento; ids que ainda não existiam ou já tinham sido removidos ficam de fora
+     */
+    <T> Map<Long, T> findAsOf(Class<T> entityClass, Collection<Long> ids, LocalDateTime timestamp);
+
+    /**
+     * Atributos auditados que mudaram entre duas revisões da entidade. Os dois estados são lidos em uma única
+     * consulta e comparados aqui, quem chama recebe só as diferenças.
+     *
+     * @param entityClass  classe auditada
+     * @param id           id da entidade
+     * @param fromRevision revisão inicial (de findRevisions)
+     * @param toRevision   revisão final (de findRevisions)
+     * @return atributos alterados na ordem do mapeamento, lista vazia se nada mudou
+     * @throws IllegalArgumentException se alguma das revisões não alterou essa entidade
+     */
+    <T> List<PropertyChange> diff(Class<T> entityClass, Long id, long fromRevision, long toRevision);
+
+}
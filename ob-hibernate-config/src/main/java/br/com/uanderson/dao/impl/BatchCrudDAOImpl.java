@@ -0,0 +1,185 @@
+package br.com.uanderson.dao.impl;
+
+import br.com.uanderson.dao.BatchCrudDAO;
+import br.com.uanderson.dto.BatchResult;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.Query;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Implementação do BatchCrudDAO para qualquer entidade: os DAOs de Car, Company, Direction e Project só informam a classe.
+ *
+ * @param <T>  entidade
+ * @param <ID> tipo do id
+ */
+public abstract class BatchCrudDAOImpl<T, ID> implements BatchCrudDAO<T, ID> {
+    static final int DEFAULT_BATCH_SIZE = 50;//quando o hibernate.jdbc.batch_size não está configurado (ou é 1)
+
+    private final Class<T> entityClass;
+
+    protected BatchCrudDAOImpl(Class<T> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    @Override
+    public List<T> findAll() {
+        return TransactionTemplate.execute(session -> {
+            //Consulta HQL
+            Query<T> query = session.createQuery("from " + entityClass.getSimpleName(), entityClass);
+            return query.list();
+        });
+    }
+
+    @Override
+    public T findById(ID id) {
+        return TransactionTemplate.execute(session -> session.find(entityClass, id));
+    }
+
+
+    /*
+        E interessante garantir a idepomtencia dos dados em operações que alteram
+        o estado do banco de dados por isso estamos usando o TransactionTemplate, que
+        abre a transação e faz o rollback() em casos de erro durante o processo de uma transação.
+        Pois lembre-se uma transação deve ter: COMEÇO, MEIO, FIM. É tudo ou nada.
+     */
+
+    @Override
+    public T create(T entity) {
+        try {
+            TransactionTemplate.executeWithoutResult(session -> session.persist(entity));
+        } catch (PersistenceException e) {
+            e.printStackTrace();//o rollback já foi feito pelo TransactionTemplate
+        }
+
+        return entity;
+    }
+
+    @Override
+    public T update(T entity) {
+        try {
+            //session.update(entity) - @Deprecated(since = "6.0")
+            //Usar merge() no lugar de update(). (ATUALIZA E INSERE REGISTROS)
+            TransactionTemplate.executeWithoutResult(session -> session.merge(entity));
+        } catch (PersistenceException e) {
+            e.printStackTrace();//o rollback já foi feito pelo TransactionTemplate
+        }
+
+        return entity;
+    }
+
+    @Override
+    public boolean deleteById(ID id) {
+        try {
+            //findById participa da mesma sessão/transação, então a entidade já vem gerenciada (managed)
+            TransactionTemplate.executeWithoutResult(session -> session.remove(findById(id)));
+        } catch (PersistenceException e) {
+            e.printStackTrace();//o rollback já foi feito pelo TransactionTemplate
+            return false;
+        }
+
+        return true;
+    }
+
+    // ======================= OPERAÇÕES EM LOTE ===============================
+
+    @Override
+    public BatchResult createAll(Collection<T> entities) {
+        return inBatches(entities, (session, batch) -> {
+            batch.forEach(session::persist);
+            return new ArrayList<Object>(batch);
+        });
+    }
+
+    @Override
+    public BatchResult updateAll(Collection<T> entities) {
+        return inBatches(entities, (session, batch) -> {
+            //carrega o lote inteiro de uma vez: o merge encontra as entidades na sessão e não faz um select para cada uma
+            session.byMultipleIds(entityClass).multiLoad(batch.stream()
+                    .map(entity -> session.getSessionFactory().getPersistenceUnitUtil().getIdentifier(entity))
+                    .filter(Objects::nonNull)
+                    .toList());
+
+            List<Object> merged = new ArrayList<>(batch.size());
+            batch.forEach(entity -> merged.add(session.merge(entity)));
+            return merged;
+        });
+    }
+
+    @Override
+    public BatchResult deleteAllById(Collection<ID> ids) {
+        return inBatches(ids, (session, batch) -> {
+            List<Object> removed = new ArrayList<>(batch.size());
+            for (T entity : session.byMultipleIds(entityClass).multiLoad(batch)) {
+                if (entity != null) {//null: id inexistente
+                    session.remove(entity);
+                    removed.add(entity);
+                }
+            }
+            return removed;
+        });
+    }
+
+    /**
+     * Executa o trabalho em lotes dentro de uma única transação. Depois de cada lote: flush (os statements iguais vão
+     * juntos em um batch JDBC) e detach das entidades do lote, para o contexto de persistência não crescer.
+     * O detach, e não o clear, mantém na sessão as entidades de quem chamou em uma chamada aninhada.
+     * Não captura a PersistenceException: quem chamou precisa saber que nada foi gravado (ou, aninhada, que a
+     * transação dele foi marcada como rollback-only pelo TransactionTemplate).
+     *
+     * @param work executa um lote e devolve as entidades gerenciadas que ele gravou ou removeu
+     */
+    private <E> BatchResult inBatches(Collection<E> items, BiFunction<Session, List<E>, List<Object>> work) {
+        if (items.isEmpty()) {
+            return BatchResult.empty();
+        }
+
+        //mesma verificação do TransactionTemplate: com uma transação ativa na thread o commit não é desta chamada
+        boolean nested = HibernateUtil.getSessionFactory().getCurrentSession().getTransaction().isActive();
+        List<E> all = new ArrayList<>(items);
+        List<Duration> batchDurations = new ArrayList<>();
+        long[] commitStart = new long[1];
+        int processed = TransactionTemplate.execute(session -> {
+            int batchSize = batchSize(session);
+            int count = 0;
+            for (int from = 0; from < all.size(); from += batchSize) {
+                long start = System.nanoTime();
+                List<Object> written = work.apply(session, all.subList(from, Math.min(from + batchSize, all.size())));
+                session.flush();
+                written.forEach(entity -> {
+                    if (session.contains(entity)) {//as removidas já saíram da sessão no flush
+                        session.detach(entity);
+                    }
+                });
+                count += written.size();
+                batchDurations.add(Duration.ofNanos(System.nanoTime() - start));
+            }
+            commitStart[0] = System.nanoTime();
+            return count;
+        });
+        return new BatchResult(processed, batchDurations,
+                nested ? Optional.empty() : Optional.of(Duration.ofNanos(System.nanoTime() - commitStart[0])));
+    }
+
+    /**
+     * Tamanho do lote = hibernate.jdbc.batch_size (ou o da sessão, se alterado com setJdbcBatchSize),
+     * assim cada flush envia um batch JDBC completo
+     */
+    private static int batchSize(Session session) {
+        Integer sessionBatchSize = session.getJdbcBatchSize();
+        int batchSize = sessionBatchSize != null ? sessionBatchSize : session.getSessionFactory()
+                .unwrap(SessionFactoryImplementor.class).getSessionFactoryOptions().getJdbcBatchSize();
+        return batchSize > 1 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+
+}//class
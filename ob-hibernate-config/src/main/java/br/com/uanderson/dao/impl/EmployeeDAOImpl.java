@@ -2,80 +2,208 @@ package br.com.uanderson.dao.impl;
 
 import br.com.uanderson.dao.EmployeeDAO;
 import br.com.uanderson.dto.EmployeeDTO;
+import br.com.uanderson.dto.EmployeeProjectionColumns;
 import br.com.uanderson.dto.EmployeeProjectionDTO;
+import br.com.uanderson.dto.KeysetPage;
 import br.com.uanderson.entities.Employee;
 import br.com.uanderson.entities.EmployeeCategory;
 import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.KeysetCursor;
+import br.com.uanderson.util.QueryRegistry;
+import br.com.uanderson.util.TransactionTemplate;
 import jakarta.persistence.PersistenceException;
-import jakarta.persistence.criteria.*;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.graph.RootGraph;
 import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
-import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.type.StandardBasicTypes;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class EmployeeDAOImpl implements EmployeeDAO {
+    public static final int DEFAULT_FETCH_SIZE = 1_000;
+    public static final int DEFAULT_CLEAR_EVERY = 1_000;
+    private static final int INITIAL_COLUMN_CAPACITY = 256;
+    private static final List<String> FULL_AGGREGATE_COLLECTIONS = List.of(
+            "cars", "projects", "nickNames", "postalCode", "creditCards", "phones");
+
     @Override
     public List<Employee> findAll() {
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        //Consulta HQL
-        Query<Employee> query = session.createQuery("from Employee ", Employee.class);
-        List<Employee> employees = query.list();
-
-        //Outra opção Equivalente:
-        //List<Employee> employee = session.createQuery("from Employee", Employee.class).list();
-
-        session.close();
-        return employees;
+        return TransactionTemplate.execute(session -> {
+            //Consulta HQL
+            Query<Employee> query = session.createQuery("from Employee ", Employee.class);
+            List<Employee> employees = query.list();
+
+            //Outra opção Equivalente:
+            //List<Employee> employee = session.createQuery("from Employee", Employee.class).list();
+            return employees;
+        });
     }
 
     @Override
     public List<Employee> findAllWithCriteria() {
         // Obtém a sessão do Hibernate
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        // 1. Criteria
-        CriteriaBuilder builder = session.getCriteriaBuilder();// Obtém o CriteriaBuilder a partir da sessão
+        return TransactionTemplate.execute(session -> session
+                .createNamedQuery(QueryRegistry.EMPLOYEE_FIND_ALL, Employee.class)//select * from ob_employees
+                .list());
+    }
 
-        CriteriaQuery<Employee> criteria = builder.createQuery(Employee.class);//// Cria uma CriteriaQuery para a entidade Employee
+    @Override
+    public List<Employee> findAllNative() {
+        return TransactionTemplate.execute(session -> {
+            NativeQuery<Employee> nativeQuery = session.createNativeQuery("SELECT * FROM ob_employees", Employee.class);
 
-        criteria.select(criteria.from(Employee.class));//select * from ob_employees
+            List<Employee> employees = nativeQuery.list();
 
-        // 2. Query
-        List<Employee> employees = session.createQuery(criteria).list();
+            return employees;
+        });
+    }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Employee> findAllWithGraph(String graphName, int page, int size) {
+        return TransactionTemplate.execute(session -> {
+            RootGraph<Employee> graph = (RootGraph<Employee>) session.getEntityGraph(graphName);//grafos nomeados do Employee
+            boolean fetchesCollection = graph.getAttributeNodeList().stream()
+                    .anyMatch(node -> node.getAttributeDescriptor().isCollection());
+
+            if (!fetchesCollection) {//apenas associações to-one: uma linha por employee, pode paginar direto no select
+                return session.createQuery("from Employee e order by e.id", Employee.class)
+                        .setEntityGraph(graph, GraphSemantic.FETCH)
+                        .setFirstResult(page * size)
+                        .setMaxResults(size)
+                        .list();
+            }
+
+            //Com uma coleção no join, o limit cortaria as linhas da coleção. Sem isso o Hibernate pagina em memória (HHH90003004).
+            //Então primeiro pagina os ids e depois carrega os employees da página com o grafo.
+            List<Long> ids = session.createQuery("select e.id from Employee e order by e.id", Long.class)
+                    .setFirstResult(page * size)
+                    .setMaxResults(size)
+                    .list();
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            return session.createQuery("from Employee e where e.id in :ids order by e.id", Employee.class)
+                    .setParameter("ids", ids)
+                    .setEntityGraph(graph, GraphSemantic.FETCH)
+                    .list();
+        });
+    }
 
-        session.close();
-        return employees;
+    @Override
+    public long forEach(Consumer<Employee> action) {
+        return forEach(DEFAULT_FETCH_SIZE, DEFAULT_CLEAR_EVERY, action);
     }
 
     @Override
-    public List<Employee> findAllNative() {
-        Session session = HibernateUtil.getSessionFactory().openSession();
+    public long forEach(int fetchSize, int clearEvery, Consumer<Employee> action) {
+        long count = 0;
+
+        try (Stream<Employee> employees = streamAll(fetchSize, clearEvery)) {
+            Iterator<Employee> iterator = employees.iterator();
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                count++;
+            }
+        }
 
-        NativeQuery<Employee> nativeQuery = session.createNativeQuery("SELECT * FROM ob_employees", Employee.class);
+        return count;
+    }
 
-        List<Employee> employees = nativeQuery.list();
+    @Override
+    public Stream<Employee> streamAll(int fetchSize, int clearEvery) {
+        if (fetchSize <= 0 || clearEvery <= 0) {
+            throw new IllegalArgumentException("fetchSize e clearEvery devem ser maiores que zero");
+        }
 
-        session.close();
+        //Sessão própria e não a do TransactionTemplate: o cursor precisa continuar aberto depois do retorno do método
+        Session session = HibernateUtil.getSessionFactory().openSession();
 
-        return employees;
+        ScrollableResults<Employee> results;
+        try {
+            //direction e company são EAGER: sem o join fetch cada linha dispararia 2 selects extras (o @BatchSize não
+            //agrupa chaves entre linhas de um cursor e o CacheMode.IGNORE não consulta o cache de segundo nível)
+            results = session.createQuery("""
+                            select e from Employee e
+                            left join fetch e.direction
+                            left join fetch e.company
+                            """, Employee.class)
+                    .setFetchSize(fetchSize)//quantidade de linhas por round-trip (MySQL precisa do useCursorFetch=true na URL)
+                    .setReadOnly(true)//sem snapshot para dirty checking
+                    .setCacheMode(CacheMode.IGNORE)//não polui o cache de segundo nível com a tabela inteira
+                    .scroll(ScrollMode.FORWARD_ONLY);
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+
+        Spliterator<Employee> spliterator = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private long rows;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Employee> action) {
+                if (!results.next()) {
+                    return false;
+                }
+
+                action.accept(results.get());
+
+                if (++rows % clearEvery == 0) {
+                    session.clear();//libera as entidades já processadas do contexto de persistência
+                }
+                return true;
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> {
+                    try {
+                        results.close();
+                    } finally {
+                        session.close();
+                    }
+                });
+        /*
+            Diferente do list(), que materializa todas as linhas em uma única List, o scroll() mantém um
+            cursor aberto e entrega uma linha por vez. Com o session.clear() a cada N linhas, o contexto de
+            persistência nunca passa de N entidades, então o consumo de memória fica constante,
+            independente do tamanho da tabela.
+         */
     }
 
     @Override
     public List<Employee> findMostPaid() {
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        Query<Employee> namedQuery = session.createNamedQuery("Employee.mostPaid", Employee.class);
+        return TransactionTemplate.execute(session -> {
+            Query<Employee> namedQuery = session.createNamedQuery("Employee.mostPaid", Employee.class);
 
-        List<Employee> employees = namedQuery.getResultList();
+            List<Employee> employees = namedQuery.getResultList();
 
-        session.close();
-
-        return employees;
+            return employees;
+        });
         /*
 
          */
@@ -83,50 +211,69 @@ public class EmployeeDAOImpl implements EmployeeDAO {
 
     @Override
     public List<EmployeeProjectionDTO> findAllProjectionNative() { //Ex. com um objeto DTO personalizado com as projections
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        NativeQuery nativeQuery = session.createNativeQuery("SELECT id, email, age from ob_employees", EmployeeProjectionDTO.class);
+        return TransactionTemplate.execute(session -> {
+            NativeQuery nativeQuery = session.createNativeQuery("SELECT id, email, age from ob_employees", EmployeeProjectionDTO.class);
 
-        List<EmployeeProjectionDTO> employees = nativeQuery.list();
+            List<EmployeeProjectionDTO> employees = nativeQuery.list();
 
-        session.close();
-
-        return employees;
+            return employees;
+        });
     }
 
     @Override
     public List<EmployeeProjectionDTO> findAllProjectionEmployeeNative() { //Ex. sem a criação de um DTO personalizado
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        NativeQuery nativeQuery = session.createNativeQuery("SELECT id, email, age from ob_employees");
-
-        List<Object[]> employees = nativeQuery.list();
-        List<EmployeeProjectionDTO> employeeDtos = new ArrayList<>();
-
-        for (Object[] employee : employees) {
-            Long id = (Long) employee[0];
-            String email = (String) employee[1];
-            Integer age = (Integer) employee[2];
-
-            employeeDtos.add(new EmployeeProjectionDTO(id, email, age));
-        }
-
-        session.close();
+        return TransactionTemplate.execute(session -> session
+                .createNativeQuery("SELECT id, email, age from ob_employees", Object[].class)
+                .addScalar("id", StandardBasicTypes.LONG)//tipos já convertidos pelo Hibernate, sem cast/conversão por linha
+                .addScalar("email", StandardBasicTypes.STRING)
+                .addScalar("age", StandardBasicTypes.INTEGER)
+                .setTupleTransformer((tuple, aliases) ->
+                        new EmployeeProjectionDTO((Long) tuple[0], (String) tuple[1], (Integer) tuple[2]))
+                .list());
+        /*
+            Antes: nativeQuery.list() devolvia uma List<Object[]> com todas as linhas, que depois era percorrida e
+            copiada para uma segunda ArrayList<EmployeeProjectionDTO>. Com o TupleTransformer o DTO é criado
+            enquanto o ResultSet é lido: o Object[] de cada linha é descartado logo em seguida e só existe uma lista.
+         */
+    }
 
-        return employeeDtos;
+    @Override
+    public EmployeeProjectionColumns findAllProjectionColumns() {
+        return TransactionTemplate.execute(session -> session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id, email, age FROM ob_employees ORDER BY id")) {
+                statement.setFetchSize(DEFAULT_FETCH_SIZE);
+
+                long[] ids = new long[INITIAL_COLUMN_CAPACITY];
+                String[] emails = new String[INITIAL_COLUMN_CAPACITY];
+                int[] ages = new int[INITIAL_COLUMN_CAPACITY];
+                int rows = 0;
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        if (rows == ids.length) {//cresce dobrando, como o ArrayList
+                            ids = Arrays.copyOf(ids, rows * 2);
+                            emails = Arrays.copyOf(emails, rows * 2);
+                            ages = Arrays.copyOf(ages, rows * 2);
+                        }
+                        ids[rows] = resultSet.getLong(1);//getLong/getInt: primitivos, sem Long/Integer
+                        emails[rows] = resultSet.getString(2);
+                        ages[rows] = resultSet.getInt(3);//0 se null
+                        rows++;
+                    }
+                }
+
+                return new EmployeeProjectionColumns(Arrays.copyOf(ids, rows), Arrays.copyOf(emails, rows),
+                        Arrays.copyOf(ages, rows));
+            }
+        }));
     }
 
     @Override
     public Long count() {
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        Query query = session.createQuery("select count(e) from Employee e");
-
-        Long count = (Long) query.getSingleResult();
-
-        session.close();
-
-        return count;
+        return TransactionTemplate.execute(session -> session
+                .createNamedQuery(QueryRegistry.EMPLOYEE_COUNT, Long.class)
+                .getSingleResult());
         /*
             Criar um method count, que retorne a quantidade de employees no banco de dados é
             útil para substituir a operação de findAll que fariamos, para recuperar todos os registros
@@ -138,97 +285,100 @@ public class EmployeeDAOImpl implements EmployeeDAO {
 
     @Override
     public Employee findById(Long id) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        Employee employee = session.find(Employee.class, id);
+        return TransactionTemplate.execute(session -> {
+            Employee employee = session.find(Employee.class, id);
 
-        session.close();
-
-        return employee;
+            return employee;
+        });
     }
 
     @Override
     public Employee findByIdEager(Long id) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        //Consulta HQL (usa o código java na consulta)
-        Query<Employee> query = session.createQuery(
-                "select distinct e from Employee e join fetch e.cars where e.id = :pk",
-                Employee.class
-        );
-
-        query.setParameter("pk", id);//nome não importa, desde que seja o mesmo. mas boas pratica de nome deve ser usadas
-
-        Employee employee = query.getSingleResult();
+        return TransactionTemplate.execute(session -> {
+            //Consulta HQL (usa o código java na consulta)
+            Query<Employee> query = session.createQuery(
+                    "select distinct e from Employee e join fetch e.cars where e.id = :pk",
+                    Employee.class
+            );
+
+            query.setParameter("pk", id);//nome não importa, desde que seja o mesmo. mas boas pratica de nome deve ser usadas
+
+            Employee employee = query.getSingleResult();
+            return employee;
+        });
+    }
 
-        session.close();
-        return employee;
+    @Override
+    public Employee findByIdFullAggregate(Long id) {
+        return TransactionTemplate.execute(session -> {
+            //associações to-one no mesmo select (uma linha)
+            Employee employee = session.createQuery(
+                            "select e from Employee e left join fetch e.direction left join fetch e.company where e.id = :pk",
+                            Employee.class)
+                    .setParameter("pk", id)
+                    .uniqueResult();
+            if (employee == null) {
+                return null;
+            }
+
+            //uma coleção por select: o Hibernate devolve a mesma instância do contexto de persistência e
+            //inicializa a coleção buscada nela. Buscar cars e projects juntos daria MultipleBagFetchException.
+            for (String collection : FULL_AGGREGATE_COLLECTIONS) {
+                session.createQuery("select e from Employee e left join fetch e." + collection + " where e.id = :pk",
+                                Employee.class)
+                        .setParameter("pk", id)
+                        .getSingleResult();
+            }
+
+            return employee;
+        });
     }
 
     @Override
     public Employee findByIdCriteria(Long id) {
         // Obtém a sessão do Hibernate
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        // 1. Criteria
-        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();// Obtém o CriteriaBuilder a partir da sessão
-
-        CriteriaQuery<Employee> criteriaQuery = criteriaBuilder.createQuery(Employee.class);//// Cria uma CriteriaQuery para a entidade Employee
-
-        Root<Employee> root = criteriaQuery.from(Employee.class);
-
-        Predicate predicateFilter = criteriaBuilder.equal(root.get("id"), id);
-
-        criteriaQuery.select(root).where(predicateFilter);//select * from ob_employees
-
-        // 2. Query
-        Employee employee = session.createQuery(criteriaQuery).getSingleResult();//Para 1 registro
-
-        session.close();
-
-        return employee;
+        return TransactionTemplate.execute(session -> session
+                .createNamedQuery(QueryRegistry.EMPLOYEE_FIND_BY_ID, Employee.class)
+                .setParameter("id", id)
+                .getSingleResult());//Para 1 registro
     }
 
     @Override
     public EmployeeDTO findByIdNative(Long id) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
+        return TransactionTemplate.execute(session -> {
+            // Não pode ter espaço entre ":" e "id"
+            NativeQuery<EmployeeDTO> query = session.createNativeQuery(
+                    "SELECT id, email FROM ob_employees WHERE id = :id",
+                    EmployeeDTO.class
+            );
 
-        // Não pode ter espaço entre ":" e "id"
-        NativeQuery<EmployeeDTO> query = session.createNativeQuery(
-                "SELECT id, email FROM ob_employees WHERE id = :id",
-                EmployeeDTO.class
-        );
+            // Define o parâmetro 'id'
+            query.setParameter("id", id);
 
-        // Define o parâmetro 'id'
-        query.setParameter("id", id);
+            // Obtem o resultado único
+            EmployeeDTO employee = query.getSingleResult();
 
-        // Obtem o resultado único
-        EmployeeDTO employee = query.getSingleResult();
-
-        session.close();
-
-        return employee;
+            return employee;
+        });
     }
 
     @Override
     public List<Employee> findByAge(Integer age) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        //Consulta HQL, com Named Parameter
-        Query<Employee> query = session.createQuery("from Employee  where age =: age", Employee.class);// =: age (também pode ser escrito como param1)
-        query.setParameter("age", age);
-
-        //Consulta HQL, com Position Parameter
-        Query<Employee> query2 = session.createQuery("from Employee  where age = ?1", Employee.class);
-        //Query<Employee> query2 = session.createQuery("from Employee  where age = ?1 and salary <= ?2", Employee.class);
-        query2.setParameter(1, age);
-        //query2.setParameter(2, 60000); //caso tenha mais de um filtro na consulta
+        return TransactionTemplate.execute(session -> {
+            //Consulta HQL, com Named Parameter: from Employee e where e.age = :age
+            Query<Employee> query = session.createNamedQuery(QueryRegistry.EMPLOYEE_BY_AGE, Employee.class);
+            query.setParameter("age", age);
 
-        List<Employee> employees = query2.list();
+            //Consulta HQL, com Position Parameter
+            //Query<Employee> query2 = session.createQuery("from Employee  where age = ?1", Employee.class);
+            //Query<Employee> query2 = session.createQuery("from Employee  where age = ?1 and salary <= ?2", Employee.class);
+            //query2.setParameter(1, age);
+            //query2.setParameter(2, 60000); //caso tenha mais de um filtro na consulta
 
-        session.close();
+            List<Employee> employees = query.list();
 
-        return employees;
+            return employees;
+        });
                 /*
                     Resumo: podemos criar consultas sql usando Named Parameter (usando o nome dos atributos da class/tabela)
                     ou Position Parameter (informando com um número a posição de cada parametro na consulta).
@@ -245,48 +395,16 @@ public class EmployeeDAOImpl implements EmployeeDAO {
      */
     @Override
     public Double findAvgByAgeCriteria() {
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        HibernateCriteriaBuilder builder = session.getCriteriaBuilder();
-        CriteriaQuery<Double> criteriaQuery = builder.createQuery(Double.class);//nossa Consulta SQL irá retornar um valor e não o objeto Employee (RESULTADO)
-        Root<Employee> root = criteriaQuery.from(Employee.class);//Mas aqui é onde iremos travbalhar, fazer as consultas no caso e na tavela Employee mesmo
-
-        Expression<Double> avg = builder.avg(root.get("age"));
-
-        criteriaQuery.select(avg);
-
-        Double averageAge = session.createQuery(criteriaQuery).getSingleResult();
-
-        return averageAge;
+        return TransactionTemplate.execute(session -> session
+                .createNamedQuery(QueryRegistry.EMPLOYEE_AVG_AGE, Double.class)//a consulta retorna um valor e não o objeto Employee
+                .getSingleResult());
     }
 
     @Override
     public List<Employee> findEmployeesWithAboveAverageSalary() {
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        // Builder para criar consultas
-        CriteriaBuilder builder = session.getCriteriaBuilder();
-
-        // Consulta principal que retorna a lista de empregados
-        CriteriaQuery<Employee> criteriaQuery = builder.createQuery(Employee.class);
-
-        // Definindo a tabela (Root) da consulta principal
-        Root<Employee> root = criteriaQuery.from(Employee.class);
-
-        // criteriaQuery.subquery é usado para criar Subconsulta, que permita calcular a média dos salários
-        Subquery<Double> subquery = criteriaQuery.subquery(Double.class);
-        Root<Employee> subRoot = subquery.from(Employee.class);
-        subquery.select(builder.avg(subRoot.get("salary")));
-
-        // Condição: Seleciona empregados cujo salário seja maior do que a média
-        criteriaQuery.select(root).where(builder.greaterThan(root.get("salary"), subquery));
-
-        // Executa a consulta
-        List<Employee> employees = session.createQuery(criteriaQuery).getResultList();
-
-        session.close();
-
-        return employees;
+        return TransactionTemplate.execute(session -> session
+                .createNamedQuery(QueryRegistry.EMPLOYEE_ABOVE_AVERAGE_SALARY, Employee.class)
+                .getResultList());
         /*
         O método criteriaQuery.subquery() em Criteria API permite criar uma subconsulta dentro de
         uma consulta principal. Isso é útil quando você precisa executar uma consulta aninhada,
@@ -303,48 +421,18 @@ public class EmployeeDAOImpl implements EmployeeDAO {
 
     @Override
     public List<Employee> findByLastNameLikeCriteria(String lastName) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        // 1. Criteria
-        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-        CriteriaQuery<Employee> criteriaQuery = criteriaBuilder.createQuery(Employee.class);
-
-        Root<Employee> root = criteriaQuery.from(Employee.class);
-
-        //Equivalente ao contains do Java
-        //select * from ob_employees where last_name LIKE '%:lastName%'
-        Predicate predicateFilter = criteriaBuilder.like(root.get("lastName"), "%" + lastName + "%");
-
-        criteriaQuery.select(root).where(predicateFilter);
-
-        // 2. Query
-        List<Employee> employees = session.createQuery(criteriaQuery).list();
-
-        session.close();
-
-        return employees;
+        return TransactionTemplate.execute(session -> session
+                .createNamedQuery(QueryRegistry.EMPLOYEE_BY_LAST_NAME_LIKE, Employee.class)
+                .setParameter("pattern", "%" + lastName + "%")//Equivalente ao contains do Java
+                .list());
     }
 
     @Override
     public List<Employee> findByAgeGreaterCriteria(Integer age) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        // 1. Criteria
-        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-        CriteriaQuery<Employee> criteriaQuery = criteriaBuilder.createQuery(Employee.class);
-
-        Root<Employee> root = criteriaQuery.from(Employee.class);
-
-        Predicate predicateFilter = criteriaBuilder.greaterThan(root.get("age"), age);
-
-        criteriaQuery.select(root).where(predicateFilter);
-
-        // 2. Query
-        List<Employee> employees = session.createQuery(criteriaQuery).list();
-
-        session.close();
-
-        return employees;
+        return TransactionTemplate.execute(session -> session
+                .createNamedQuery(QueryRegistry.EMPLOYEE_BY_AGE_GREATER, Employee.class)
+                .setParameter("age", age)
+                .list());
         /*
         .gt() é a abreviação de greaterThan():
            - Create a predicate for testing whether the first argument is greater than the second.
@@ -353,24 +441,11 @@ public class EmployeeDAOImpl implements EmployeeDAO {
 
     @Override
     public List<Employee> findByAgeBetweenCriteria(Integer min, Integer max) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
-
-        // 1. Criteria
-        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-        CriteriaQuery<Employee> criteriaQuery = criteriaBuilder.createQuery(Employee.class);
-
-        Root<Employee> root = criteriaQuery.from(Employee.class);
-
-        Predicate predicateFilter = criteriaBuilder.between(root.get("age"), min, max);
-
-        criteriaQuery.select(root).where(predicateFilter);
-
-        // 2. Query
-        List<Employee> employees = session.createQuery(criteriaQuery).list();
-
-        session.close();
-
-        return employees;
+        return TransactionTemplate.execute(session -> session
+                .createNamedQuery(QueryRegistry.EMPLOYEE_BY_AGE_BETWEEN, Employee.class)
+                .setParameter("min", min)
+                .setParameter("max", max)
+                .list());
         /*
         .gt():
            - Create a predicate for testing whether the first argument is greater than the second.
@@ -380,45 +455,100 @@ public class EmployeeDAOImpl implements EmployeeDAO {
     @Override
     public List<Employee> findByAgeBetweenAndCategoryCriteria(Integer ageMin, Integer ageMax,
                                                               EmployeeCategory category) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
+        return TransactionTemplate.execute(session -> session
+                .createNamedQuery(QueryRegistry.EMPLOYEE_BY_AGE_BETWEEN_AND_CATEGORY, Employee.class)
+                .setParameter("ageMin", ageMin)
+                .setParameter("ageMax", ageMax)
+                .setParameter("category", category)
+                .list());
 
-        // 1. CriteriaBuilder
-        //HibernateCriteriaBuilder builder = session.getCriteriaBuilder(); embora retorne um 'HibernateCriteriaBuilder' estamos usando a interface CriteriaBuilder que o mesmo implementa
-        CriteriaBuilder builder = session.getCriteriaBuilder();
-        CriteriaQuery<Employee> criteriaQuery = builder.createQuery(Employee.class);
-        Root<Employee> root = criteriaQuery.from(Employee.class);
+    }
 
-        Predicate ageFilter = builder.between(root.get("age"), ageMin, ageMax);
-        Predicate categoryFilter = builder.equal(root.get("category"), category);
-        Predicate filterFinal = builder.and(ageFilter, categoryFilter); // (AND) Estamos juntando os filtros em um só para poder passar para o 'where' do sql
-        //Predicate filterFinal = builder.or(ageFilter, categoryFilter); // (OR)
+    @Override
+    public KeysetPage<Employee> findByLastNameLikeCriteria(String lastName, String cursor, int size) {
+        return findPage(QueryRegistry.EMPLOYEE_BY_LAST_NAME_LIKE_PAGE, QueryRegistry.EMPLOYEE_BY_LAST_NAME_LIKE_NEXT_PAGE,
+                Employee::getLastName, Function.identity(),
+                query -> query.setParameter("pattern", "%" + lastName + "%"),
+                cursor, size);
+    }
 
-        //criteriaQuery.select(root).where(builder.and(ageFilter, categoryFilter));
-        criteriaQuery.select(root).where(filterFinal);
+    @Override
+    public KeysetPage<Employee> findByAgeGreaterCriteria(Integer age, String cursor, int size) {
+        return findPage(QueryRegistry.EMPLOYEE_BY_AGE_GREATER_PAGE, QueryRegistry.EMPLOYEE_BY_AGE_GREATER_NEXT_PAGE,
+                Employee::getAge, Integer::valueOf,
+                query -> query.setParameter("age", age),
+                cursor, size);
+    }
 
-        // 2. Query
-        List<Employee> employees = session.createQuery(criteriaQuery).list();
+    @Override
+    public KeysetPage<Employee> findByAgeBetweenCriteria(Integer min, Integer max, String cursor, int size) {
+        return findPage(QueryRegistry.EMPLOYEE_BY_AGE_BETWEEN_PAGE, QueryRegistry.EMPLOYEE_BY_AGE_BETWEEN_NEXT_PAGE,
+                Employee::getAge, Integer::valueOf,
+                query -> query.setParameter("min", min).setParameter("max", max),
+                cursor, size);
+    }
 
-        session.close();
-        return employees;
+    @Override
+    public KeysetPage<Employee> findByAgeBetweenAndCategoryCriteria(Integer ageMin, Integer ageMax, EmployeeCategory category,
+                                                                    String cursor, int size) {
+        return findPage(QueryRegistry.EMPLOYEE_BY_AGE_BETWEEN_AND_CATEGORY_PAGE,
+                QueryRegistry.EMPLOYEE_BY_AGE_BETWEEN_AND_CATEGORY_NEXT_PAGE,
+                Employee::getAge, Integer::valueOf,
+                query -> query.setParameter("ageMin", ageMin)
+                        .setParameter("ageMax", ageMax)
+                        .setParameter("category", category),
+                cursor, size);
+    }
 
+    /**
+     * Paginação keyset (seek): ordena por (sortKey, id) e a próxima página começa depois do último
+     * registro da anterior: where filtro and (sortKey > :sortKey or (sortKey = :sortKey and id > :id)).
+     * Com os índices do Employee o banco vai direto à posição, sem ler as páginas anteriores como no offset.
+     * <p>
+     * As duas consultas (com e sem o cursor) são named queries do QueryRegistry: o HQL é interpretado uma única vez.
+     *
+     * @param pageQuery     named query da primeira página
+     * @param nextPageQuery named query das páginas seguintes (parâmetros :sortKey e :id)
+     * @param sortValue     lê o valor de ordenação do último Employee da página, para o cursor
+     * @param parseSortKey  converte o valor de ordenação do cursor de volta para o tipo do atributo
+     * @param filter        informa os parâmetros do filtro
+     */
+    private <K extends Comparable<? super K>> KeysetPage<Employee> findPage(String pageQuery, String nextPageQuery,
+                                                                            Function<Employee, K> sortValue,
+                                                                            Function<String, K> parseSortKey,
+                                                                            Consumer<Query<Employee>> filter,
+                                                                            String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size deve ser maior que zero");
+        }
+        KeysetCursor position = cursor == null ? null : KeysetCursor.decode(cursor);//valida antes de abrir a sessão
+        K lastSortKey = position == null ? null : parseSortKey.apply(position.sortKey());
+
+        return TransactionTemplate.execute(session -> {
+            Query<Employee> query = session.createNamedQuery(position == null ? pageQuery : nextPageQuery, Employee.class);
+            filter.accept(query);
+            if (position != null) {
+                query.setParameter("sortKey", lastSortKey).setParameter("id", position.id());
+            }
+
+            // busca um registro a mais só para saber se existe próxima página
+            List<Employee> employees = query.setMaxResults(size + 1).list();
+
+            if (employees.size() <= size) {
+                return new KeysetPage<>(employees, null);
+            }
+            List<Employee> content = new ArrayList<>(employees.subList(0, size));
+            Employee last = content.get(size - 1);
+            return new KeysetPage<>(content, KeysetCursor.encode(sortValue.apply(last), last.getId()));
+        });
     }
 
     @Override
     public Employee create(Employee employee) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
         try {
-            session.beginTransaction();
-
-            session.persist(employee);
-
-            session.getTransaction().commit();
-
+            TransactionTemplate.executeWithoutResult(session -> session.persist(employee));
         } catch (PersistenceException e) {
-            e.printStackTrace();
-            session.getTransaction().rollback();//desfaz a transação caso ocorra erro
-        } finally {
-            session.close();
+            e.printStackTrace();//o rollback já foi feito pelo TransactionTemplate
         }
 
         return employee;
@@ -426,20 +556,12 @@ public class EmployeeDAOImpl implements EmployeeDAO {
 
     @Override
     public Employee update(Employee employee) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
         try {
-            session.beginTransaction();
-
             //session.update(employee) - @Deprecated(since = "6.0")
-            session.merge(employee);//Usar merge() no lugar de update(). (ATUALIZA E INSERE REGISTROS)
-
-            session.getTransaction().commit();
-
+            //Usar merge() no lugar de update(). (ATUALIZA E INSERE REGISTROS)
+            TransactionTemplate.executeWithoutResult(session -> session.merge(employee));
         } catch (PersistenceException e) {
-            e.printStackTrace();
-            session.getTransaction().rollback();//desfaz a transação caso ocorra erro
-        } finally {
-            session.close();
+            e.printStackTrace();//o rollback já foi feito pelo TransactionTemplate
         }
 
         return employee;
@@ -447,24 +569,135 @@ public class EmployeeDAOImpl implements EmployeeDAO {
 
     @Override
     public boolean deleteById(Long id) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
         try {
-            session.beginTransaction();
+            //findById participa da mesma sessão/transação, então o employee já vem gerenciado (managed)
+            TransactionTemplate.executeWithoutResult(session -> session.remove(findById(id)));
+        } catch (PersistenceException e) {
+            e.printStackTrace();//o rollback já foi feito pelo TransactionTemplate
+            return false;
+        }
 
-            Employee employee = findById(id);
+        return true;
+    }
 
-            session.remove(employee);
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;//nada a fazer, nem abre a transação
+        }
 
-            session.getTransaction().commit();
+        return executeBulk(session -> session
+                        .createNamedMutationQuery(QueryRegistry.EMPLOYEE_DELETE_BY_IDS)
+                        .setParameterList("ids", ids)
+                        .executeUpdate(),
+                employee -> ids.contains(employee.getId()));
+    }
 
-        } catch (PersistenceException e) {
-            e.printStackTrace();
-            session.getTransaction().rollback();//desfaz a transação caso ocorra erro
-            return false;
-        } finally {
-            session.close();
+    @Override
+    public int raiseSalaryByCategory(EmployeeCategory category, double pct) {
+        if (!Double.isFinite(pct) || pct < -100) {//NaN e infinito gravariam NaN/Infinity em todos os salários da categoria
+            throw new IllegalArgumentException("pct deve ser um número finito maior ou igual a -100: " + pct);
         }
 
-        return true;
+        return executeBulk(session -> session
+                        .createNamedMutationQuery(QueryRegistry.EMPLOYEE_RAISE_SALARY_BY_CATEGORY)
+                        .setParameter("factor", 1 + pct / 100)
+                        .setParameter("category", category)
+                        .executeUpdate(),
+                employee -> employee.getCategory() == category);
+    }
+
+    @Override
+    public int updateCategoryWhereAgeBetween(Integer ageMin, Integer ageMax, EmployeeCategory category) {
+        return executeBulk(session -> session
+                        .createNamedMutationQuery(QueryRegistry.EMPLOYEE_UPDATE_CATEGORY_WHERE_AGE_BETWEEN)
+                        .setParameter("ageMin", ageMin)
+                        .setParameter("ageMax", ageMax)
+                        .setParameter("category", category)
+                        .executeUpdate(),
+                employee -> employee.getAge() != null && employee.getAge() >= ageMin && employee.getAge() <= ageMax);
+    }
+
+    @Override
+    public boolean addNickName(Long id, String nickName) {
+        return updateCollection(id, Employee::getNickNames, nickNames -> nickNames.add(nickName));
+    }
+
+    @Override
+    public boolean updateNickNames(Long id, List<String> nickNames) {
+        List<String> target = new ArrayList<>(nickNames);//pode ser a própria lista do employee
+        return updateCollection(id, Employee::getNickNames, current -> applyElements(current, target));
+    }
+
+    @Override
+    public boolean updatePostalCodes(Long id, List<Integer> postalCodes) {
+        List<Integer> target = new ArrayList<>(postalCodes);
+        return updateCollection(id, Employee::getPostalCode, current -> applyElements(current, target));
+    }
+
+    /**
+     * Altera a coleção gerenciada (PersistentList) do employee, no flush o Hibernate compara com o snapshot
+     * e grava só as posições alteradas
+     *
+     * @throws PersistenceException se a gravação falhar
+     */
+    private <E> boolean updateCollection(Long id, Function<Employee, List<E>> collection, Consumer<List<E>> change) {
+        //false só quando o employee não existe, um erro no flush chega a quem chamou
+        return TransactionTemplate.execute(session -> {
+            Employee employee = session.find(Employee.class, id);
+            if (employee == null) {
+                return false;
+            }
+            change.accept(collection.apply(employee));
+            return true;
+        });
+    }
+
+    /**
+     * Transforma current em target por posição: set onde o valor mudou, add do que falta e remove do fim.
+     * As posições iguais não são tocadas, então não geram nenhum statement.
+     */
+    private static <E> void applyElements(List<E> current, List<E> target) {
+        int common = Math.min(current.size(), target.size());
+        for (int i = 0; i < common; i++) {
+            if (!Objects.equals(current.get(i), target.get(i))) {
+                current.set(i, target.get(i));
+            }
+        }
+        for (int i = common; i < target.size(); i++) {
+            current.add(target.get(i));
+        }
+        while (current.size() > target.size()) {
+            current.remove(current.size() - 1);
+        }
+    }
+
+    /**
+     * Executa um update/delete em lote e desanexa da sessão os employees afetados.
+     * <p>
+     * O flush automático (FlushMode.AUTO) grava as alterações pendentes antes do statement, e o Hibernate
+     * invalida sozinho as regiões do Employee no cache de segundo nível (BulkOperationCleanupAction).
+     * O que ele não faz é atualizar as entidades já carregadas na sessão: em uma chamada aninhada, quem chamou
+     * continuaria vendo o salário/categoria antigos, ou um employee já deletado. Por isso elas são desanexadas
+     * e o próximo find/get busca o estado novo no banco.
+     *
+     * @param statement executa o statement e devolve a quantidade de linhas afetadas
+     * @param affected  indica se um employee gerenciado pela sessão é afetado pelo statement
+     * @throws PersistenceException se o statement falhar (a transação já foi desfeita ou marcada como rollback-only)
+     */
+    private int executeBulk(Function<Session, Integer> statement, Predicate<Employee> affected) {
+        //sem catch: um erro não pode parecer "nenhuma linha afetada", e em uma chamada aninhada quem chamou precisa
+        //saber que a sua transação foi marcada como rollback-only
+        return TransactionTemplate.execute(session -> {
+            int rows = statement.apply(session);
+
+            for (Map.Entry<Object, EntityEntry> entry : session.unwrap(SessionImplementor.class)
+                    .getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+                if (entry.getKey() instanceof Employee employee && affected.test(employee)) {
+                    session.detach(employee);
+                }
+            }
+            return rows;
+        });
     }
 }
@@ -0,0 +1,127 @@
+package br.com.uanderson.dao.impl;
+
+import br.com.uanderson.dao.EmployeeStatsDAO;
+import br.com.uanderson.dto.EmployeeStatsDTO;
+import br.com.uanderson.entities.EmployeeCategory;
+import br.com.uanderson.util.TransactionTemplate;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.time.Duration;
+import java.util.List;
+
+public class EmployeeStatsDAOImpl implements EmployeeStatsDAO {
+    /*
+        MySQL não tem PERCENTILE_CONT (o Hibernate não emula no MySQLDialect), então os percentis são calculados com
+        funções de janela (MySQL 8+): no select interno cada employee recebe a sua posição no grupo ordenado por
+        salário/idade (ROW_NUMBER), e no GROUP BY o percentil p é o valor na posição CEIL(p * quantidade).
+        Os nulls vêm primeiro na ordenação e são pulados somando a quantidade de nulls à posição.
+     */
+    private static final String STATS_SQL = """
+            SELECT r.category, r.married, r.company_id, c.legalName AS company_name,
+                   COUNT(*) AS employees,
+                   MIN(r.salary) AS salary_min, MAX(r.salary) AS salary_max, AVG(r.salary) AS salary_avg,
+                   MAX(CASE WHEN r.salary_rank = r.salary_nulls + CEIL(0.50 * r.salary_count) THEN r.salary END) AS salary_p50,
+                   MAX(CASE WHEN r.salary_rank = r.salary_nulls + CEIL(0.90 * r.salary_count) THEN r.salary END) AS salary_p90,
+                   MAX(CASE WHEN r.salary_rank = r.salary_nulls + CEIL(0.99 * r.salary_count) THEN r.salary END) AS salary_p99,
+                   MIN(r.age) AS age_min, MAX(r.age) AS age_max, AVG(r.age) AS age_avg,
+                   MAX(CASE WHEN r.age_rank = r.age_nulls + CEIL(0.50 * r.age_count) THEN r.age END) AS age_p50,
+                   MAX(CASE WHEN r.age_rank = r.age_nulls + CEIL(0.90 * r.age_count) THEN r.age END) AS age_p90,
+                   MAX(CASE WHEN r.age_rank = r.age_nulls + CEIL(0.99 * r.age_count) THEN r.age END) AS age_p99
+            FROM (
+                SELECT e.category, e.married, e.company_id, e.salary, e.age,
+                       ROW_NUMBER() OVER (PARTITION BY e.category, e.married, e.company_id
+                                          ORDER BY CASE WHEN e.salary IS NULL THEN 0 ELSE 1 END, e.salary) AS salary_rank,
+                       COUNT(e.salary) OVER w AS salary_count,
+                       COUNT(*) OVER w - COUNT(e.salary) OVER w AS salary_nulls,
+                       ROW_NUMBER() OVER (PARTITION BY e.category, e.married, e.company_id
+                                          ORDER BY CASE WHEN e.age IS NULL THEN 0 ELSE 1 END, e.age) AS age_rank,
+                       COUNT(e.age) OVER w AS age_count,
+                       COUNT(*) OVER w - COUNT(e.age) OVER w AS age_nulls
+                FROM ob_employees e
+                WINDOW w AS (PARTITION BY e.category, e.married, e.company_id)
+            ) r
+            LEFT JOIN ob_companies c ON c.id = r.company_id
+            GROUP BY r.category, r.married, r.company_id, c.legalName
+            ORDER BY r.category, r.married, r.company_id
+            """;
+
+    private final long ttlNanos;
+    private volatile CachedStats cached;
+
+    /**
+     * Sem cache: toda chamada vai ao banco
+     */
+    public EmployeeStatsDAOImpl() {
+        this(Duration.ZERO);
+    }
+
+    /**
+     * @param ttl por quanto tempo os agregados são reaproveitados antes de serem recalculados.
+     *            Os valores podem ficar desatualizados até esse tempo, então use durações curtas (ex: alguns segundos)
+     */
+    public EmployeeStatsDAOImpl(Duration ttl) {
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("ttl não pode ser negativo");
+        }
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public List<EmployeeStatsDTO> findStatsByCategoryMarriedAndCompany() {
+        if (ttlNanos == 0) {
+            return queryStats();
+        }
+
+        CachedStats current = cached;
+        long now = System.nanoTime();
+        if (current != null && now - current.loadedAt() < ttlNanos) {
+            return current.stats();
+        }
+
+        //Se duas threads chegarem juntas com o cache expirado, as duas consultam: evita um lock em volta do select
+        List<EmployeeStatsDTO> stats = queryStats();
+        cached = new CachedStats(stats, now);
+        return stats;
+    }
+
+    @Override
+    public void invalidate() {
+        cached = null;
+    }
+
+    private List<EmployeeStatsDTO> queryStats() {
+        return TransactionTemplate.execute(session -> {
+            NativeQuery<Object[]> nativeQuery = session.createNativeQuery(STATS_SQL, Object[].class)
+                    .addScalar("category", StandardBasicTypes.STRING)
+                    .addScalar("married", StandardBasicTypes.BOOLEAN)
+                    .addScalar("company_id", StandardBasicTypes.LONG)
+                    .addScalar("company_name", StandardBasicTypes.STRING)
+                    .addScalar("employees", StandardBasicTypes.LONG);
+            for (String column : List.of("salary", "age")) {
+                for (String aggregate : List.of("min", "max", "avg", "p50", "p90", "p99")) {
+                    nativeQuery.addScalar(column + "_" + aggregate, StandardBasicTypes.DOUBLE);
+                }
+            }
+
+            return List.copyOf(nativeQuery
+                    .setTupleTransformer((tuple, aliases) -> new EmployeeStatsDTO(
+                            tuple[0] == null ? null : EmployeeCategory.valueOf((String) tuple[0]),
+                            (Boolean) tuple[1],
+                            (Long) tuple[2],
+                            (String) tuple[3],
+                            (Long) tuple[4],
+                            summary(tuple, 5),
+                            summary(tuple, 11)))
+                    .list());//imutável: a mesma lista é devolvida a todos enquanto estiver no cache
+        });
+    }
+
+    private static EmployeeStatsDTO.Summary summary(Object[] tuple, int first) {
+        return new EmployeeStatsDTO.Summary((Double) tuple[first], (Double) tuple[first + 1], (Double) tuple[first + 2],
+                (Double) tuple[first + 3], (Double) tuple[first + 4], (Double) tuple[first + 5]);
+    }
+
+    private record CachedStats(List<EmployeeStatsDTO> stats, long loadedAt) {
+    }
+}
@@ -0,0 +1,176 @@
+package br.com.uanderson.dao.impl;
+
+import br.com.uanderson.dao.RevisionHistoryDAO;
+import br.com.uanderson.dto.EntityRevision;
+import br.com.uanderson.dto.KeysetPage;
+import br.com.uanderson.dto.PropertyChange;
+import br.com.uanderson.util.KeysetCursor;
+import br.com.uanderson.util.TransactionTemplate;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.envers.AuditReader;
+import org.hibernate.envers.AuditReaderFactory;
+import org.hibernate.envers.DefaultRevisionEntity;
+import org.hibernate.envers.RevisionType;
+import org.hibernate.envers.enhanced.SequenceIdRevisionEntity;
+import org.hibernate.envers.exception.RevisionDoesNotExistException;
+import org.hibernate.envers.query.AuditEntity;
+import org.hibernate.envers.query.AuditQuery;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+public class RevisionHistoryDAOImpl implements RevisionHistoryDAO {
+
+    @Override
+    public <T> KeysetPage<EntityRevision<T>> findRevisions(Class<T> entityClass, Long id, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size deve ser maior que zero");
+        }
+        KeysetCursor position = cursor == null ? null : KeysetCursor.decode(cursor);//valida antes de abrir a sessão
+        if (position != null && position.id() != id) {
+            throw new IllegalArgumentException("Cursor de outra entidade: " + cursor);
+        }
+
+        return TransactionTemplate.execute(session -> {
+            //selectEntitiesOnly = false: cada linha é [estado, entidade de revisão (REVINFO), RevisionType]
+            AuditQuery query = AuditReaderFactory.get(session).createQuery()
+                    .forRevisionsOfEntity(entityClass, false, true)
+                    .add(AuditEntity.id().eq(id))
+                    .addOrder(AuditEntity.revisionNumber().asc())
+                    .setMaxResults(size + 1);//um registro a mais só para saber se existe próxima página
+            if (position != null) {
+                //where REV > :ultimaRevisao, usando a chave primária (id, REV) da tabela _AUD
+                query.add(AuditEntity.revisionNumber().gt(Long.valueOf(position.sortKey()).intValue()));
+            }
+
+            List<EntityRevision<T>> revisions = new ArrayList<>();
+            for (Object row : query.getResultList()) {
+                revisions.add(toEntityRevision(entityClass, (Object[]) row));
+            }
+
+            if (revisions.size() <= size) {
+                return new KeysetPage<>(revisions, null);
+            }
+            List<EntityRevision<T>> content = new ArrayList<>(revisions.subList(0, size));
+            return new KeysetPage<>(content, KeysetCursor.encode(content.get(size - 1).revision(), id));
+        });
+    }
+
+    @Override
+    public <T> Map<Long, T> findAsOf(Class<T> entityClass, Collection<Long> ids, LocalDateTime timestamp) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        return TransactionTemplate.execute(session -> {
+            AuditReader auditReader = AuditReaderFactory.get(session);
+            Number revision;
+            try {
+                //select max(REV) from REVINFO where REVTSTMP <= :timestamp
+                revision = auditReader.getRevisionNumberForDate(timestamp);
+            } catch (RevisionDoesNotExistException e) {
+                return Map.<Long, T>of();//nenhuma revisão até esse momento
+            }
+
+            //para cada id, a linha com o maior REV <= revision (subconsulta correlacionada), em um único select
+            List<?> states = auditReader.createQuery()
+                    .forEntitiesAtRevision(entityClass, revision)
+                    .add(AuditEntity.id().in(ids))
+                    .getResultList();
+
+            PersistenceUnitUtil persistenceUnitUtil = session.getSessionFactory().getPersistenceUnitUtil();
+            Map<Long, T> statesById = new LinkedHashMap<>();
+            for (Object state : states) {
+                statesById.put((Long) persistenceUnitUtil.getIdentifier(state), entityClass.cast(state));
+            }
+            return statesById;
+        });
+    }
+
+    @Override
+    public <T> List<PropertyChange> diff(Class<T> entityClass, Long id, long fromRevision, long toRevision) {
+        return TransactionTemplate.execute(session -> {
+            //as duas revisões em um único select: where id = :id and REV in (:from, :to)
+            List<?> rows = AuditReaderFactory.get(session).createQuery()
+                    .forRevisionsOfEntity(entityClass, false, true)
+                    .add(AuditEntity.id().eq(id))
+                    .add(AuditEntity.revisionNumber().in(List.of((int) fromRevision, (int) toRevision)))
+                    .getResultList();
+
+            Map<Long, T> states = new HashMap<>();
+            for (Object row : rows) {
+                EntityRevision<T> revision = toEntityRevision(entityClass, (Object[]) row);
+                states.put(revision.revision(), revision.state());
+            }
+            T before = requireState(states, entityClass, id, fromRevision);
+            T after = requireState(states, entityClass, id, toRevision);
+
+            return changedProperties(session, entityClass, before, after);
+        });
+    }
+
+    private static <T> T requireState(Map<Long, T> states, Class<T> entityClass, Long id, long revision) {
+        if (!states.containsKey(revision)) {
+            throw new IllegalArgumentException("A revisão " + revision + " não alterou " + entityClass.getSimpleName() + "#" + id);
+        }
+        return states.get(revision);
+    }
+
+    /**
+     * Compara os atributos mapeados. Os não auditados são null nos dois estados e nunca aparecem como alterados.
+     * As coleções ficam de fora: são lazy e comparar obrigaria uma consulta na tabela _AUD de cada coleção.
+     */
+    private static <T> List<PropertyChange> changedProperties(Session session, Class<T> entityClass, T before, T after) {
+        SessionFactoryImplementor sessionFactory = session.getSessionFactory().unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        PersistenceUnitUtil persistenceUnitUtil = sessionFactory.getPersistenceUnitUtil();
+
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        Object[] beforeValues = persister.getValues(before);
+        Object[] afterValues = persister.getValues(after);
+
+        List<PropertyChange> changes = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            if (types[i] instanceof CollectionType || types[i].isEqual(beforeValues[i], afterValues[i])) {
+                continue;
+            }
+            if (types[i] instanceof EntityType) {//compara e devolve o id, sem inicializar o proxy da revisão
+                changes.add(new PropertyChange(names[i],
+                        beforeValues[i] == null ? null : persistenceUnitUtil.getIdentifier(beforeValues[i]),
+                        afterValues[i] == null ? null : persistenceUnitUtil.getIdentifier(afterValues[i])));
+            } else {
+                changes.add(new PropertyChange(names[i], beforeValues[i], afterValues[i]));
+            }
+        }
+        return changes;
+    }
+
+    private static <T> EntityRevision<T> toEntityRevision(Class<T> entityClass, Object[] row) {
+        long revision;
+        long timestamp;
+        //a entidade de revisão depende de org.hibernate.envers.use_revision_entity_with_native_id (padrão true)
+        if (row[1] instanceof DefaultRevisionEntity revisionEntity) {
+            revision = revisionEntity.getId();
+            timestamp = revisionEntity.getTimestamp();
+        } else {
+            SequenceIdRevisionEntity revisionEntity = (SequenceIdRevisionEntity) row[1];
+            revision = revisionEntity.getId();
+            timestamp = revisionEntity.getTimestamp();
+        }
+
+        return new EntityRevision<>(revision,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()),
+                (RevisionType) row[2],
+                entityClass.cast(row[0]));
+    }
+
+}//class
@@ -0,0 +1,41 @@
+package br.com.uanderson.dto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resultado de uma operação em lote do BatchCrudDAO: cada lote de N entidades termina com flush + detach das
+ * entidades do lote, então a duração de um lote inclui os statements JDBC (em batch) enviados ao banco.
+ * Uma falha não gera um BatchResult: a exceção chega a quem chamou.
+ *
+ * @param processed      quantidade de entidades gravadas/removidas
+ * @param batchDurations duração de cada lote, na ordem
+ * @param commit         duração do commit (inclui as linhas de auditoria do Envers, gravadas no fim da transação).
+ *                       Vazio em chamada aninhada: o commit é feito depois, por quem abriu a transação
+ */
+public record BatchResult(int processed, List<Duration> batchDurations, Optional<Duration> commit) {
+
+    /**
+     * Nenhuma entidade informada: nenhuma transação foi aberta
+     */
+    public static BatchResult empty() {
+        return new BatchResult(0, List.of(), Optional.empty());
+    }
+
+    /**
+     * @return soma dos lotes e do commit (só os lotes em chamada aninhada)
+     */
+    public Duration total() {
+        return batchDurations.stream().reduce(commit.orElse(Duration.ZERO), Duration::plus);
+    }
+
+    public Duration slowestBatch() {
+        return batchDurations.stream().max(Duration::compareTo).orElse(Duration.ZERO);
+    }
+
+    public double entitiesPerSecond() {
+        long nanos = total().toNanos();
+        return nanos == 0 ? 0 : processed * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.uanderson.dto;
+
+/**
+ * Projeção (id, email, age) em formato colunar: um array por coluna, a linha i é (ids[i], emails[i], ages[i]).
+ * Sem um objeto por linha e sem Long/Integer, útil para agregações e análises sobre muitos employees.
+ *
+ * @param ids    ids dos employees
+ * @param emails emails dos employees
+ * @param ages   idades dos employees (0 quando a idade é null)
+ */
+public record EmployeeProjectionColumns(long[] ids, String[] emails, int[] ages) {
+
+    public int size() {
+        return ids.length;
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.uanderson.dto;
+
+import br.com.uanderson.entities.EmployeeCategory;
+
+/**
+ * Agregados de um grupo de employees (mesma categoria, estado civil e company)
+ *
+ * @param category    categoria do grupo (null para employees sem categoria)
+ * @param married     estado civil do grupo
+ * @param companyId   id da company do grupo (null para employees sem company)
+ * @param companyName legalName da company
+ * @param count       quantidade de employees no grupo
+ * @param salary      agregados do salário
+ * @param age         agregados da idade
+ */
+public record EmployeeStatsDTO(EmployeeCategory category, Boolean married, Long companyId, String companyName,
+                               long count, Summary salary, Summary age) {
+
+    /**
+     * Os valores null (salário/idade não informados) são ignorados, assim como no AVG do SQL.
+     * Os percentis usam o método nearest-rank: o menor valor com pelo menos p% dos valores menores ou iguais a ele.
+     * Todos os campos são null se nenhum employee do grupo tem o valor.
+     */
+    public record Summary(Double min, Double max, Double avg, Double p50, Double p90, Double p99) {
+    }
+}
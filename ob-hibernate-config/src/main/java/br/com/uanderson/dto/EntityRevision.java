@@ -0,0 +1,16 @@
+package br.com.uanderson.dto;
+
+import org.hibernate.envers.RevisionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Uma revisão de uma entidade auditada pelo Envers: o estado gravado na tabela _AUD e os dados do REVINFO
+ *
+ * @param revision  número da revisão (REV)
+ * @param timestamp data/hora do commit da revisão (REVTSTMP)
+ * @param type      ADD (0), MOD (1) ou DEL (2), a coluna REVTYPE
+ * @param state     estado da entidade na revisão, só os atributos auditados são preenchidos
+ */
+public record EntityRevision<T>(long revision, LocalDateTime timestamp, RevisionType type, T state) {
+}
@@ -0,0 +1,16 @@
+package br.com.uanderson.dto;
+
+import java.util.List;
+
+/**
+ * Página de uma consulta com paginação keyset (seek)
+ *
+ * @param content    registros da página
+ * @param nextCursor token para buscar a próxima página ou null se esta for a última
+ */
+public record KeysetPage<T>(List<T> content, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.uanderson.dto;
+
+/**
+ * Atributo auditado que mudou entre duas revisões. Associações (ManyToOne, OneToOne) aparecem pelo id.
+ *
+ * @param property nome do atributo
+ * @param before   valor na revisão inicial
+ * @param after    valor na revisão final
+ */
+public record PropertyChange(String property, Object before, Object after) {
+}
@@ -1,6 +1,9 @@
 package br.com.uanderson.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.envers.Audited;
 
@@ -10,6 +13,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "ob_cars")
 @Audited
+@Cacheable
+@BatchSize(size = 50)//proxies de Car na sessão são inicializados em lotes de até 50 ids
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)//cache de segundo nível, região br.com.uanderson.entities.Car
 public class Car implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
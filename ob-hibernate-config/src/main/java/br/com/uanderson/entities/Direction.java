@@ -4,6 +4,9 @@ package br.com.uanderson.entities;
 import jakarta.persistence.*;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.envers.Audited;
 
@@ -13,6 +16,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "ob_directions")
 @Audited
+@Cacheable
+@BatchSize(size = 50)//proxies de Direction na sessão são inicializados em lotes de até 50 ids
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)//cache de segundo nível, região br.com.uanderson.entities.Direction
 public class Direction implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,7 +1,11 @@
 package br.com.uanderson.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.jpa.HibernateHints;
 import org.hibernate.envers.Audited;
 import org.hibernate.envers.RelationTargetAuditMode;
 
@@ -14,8 +18,31 @@ import java.util.*;
  * Representa uma tabela na base de dados
  */
 @Entity
-@Table(name = "ob_employees") //Optional
-@NamedQuery(name = "Employee.mostPaid", query = "from Employee e where e.salary > 50000")
+@Table(name = "ob_employees", indexes = {//índices da paginação keyset (filtro/ordenação + id para desempate)
+        @Index(name = "idx_employee_age_id", columnList = "age, id"),
+        @Index(name = "idx_employee_category_age_id", columnList = "category, age, id"),
+        @Index(name = "idx_employee_last_name_id", columnList = "last_name, id")
+}) //Optional
+@NamedQuery(name = "Employee.mostPaid", query = "from Employee e where e.salary > 50000",
+        hints = @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))//resultado guardado no cache de consultas
+@NamedEntityGraph(name = "Employee.summary", attributeNodes = {//carregados no mesmo select (join)
+        @NamedAttributeNode("direction"),
+        @NamedAttributeNode("company")
+})
+@NamedEntityGraph(name = "Employee.withCars", attributeNodes = {
+        @NamedAttributeNode("direction"),
+        @NamedAttributeNode("company"),
+        @NamedAttributeNode("cars")
+})
+@NamedEntityGraph(name = "Employee.withProjects", attributeNodes = {
+        @NamedAttributeNode("direction"),
+        @NamedAttributeNode("company"),
+        @NamedAttributeNode("projects")
+})
+//Apenas UMA coleção List (bag) por grafo: duas geram MultipleBagFetchException e um produto cartesiano.
+//As demais coleções são carregadas pelo @BatchSize.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)//cache de segundo nível, região br.com.uanderson.entities.Employee
 //@Audited(targetAuditMode = RelationTargetAuditMode.NOT_AUDITED) //Não audita as relações, e se aplica somente a essa entidade
 //@Audited //Auditar as relações, mas elas têm quer ter a anotação também, caso contrário irá dar error.
 public class Employee implements Serializable {
@@ -63,33 +90,48 @@ public class Employee implements Serializable {
      * No caso, a coluna `employee_id` na tabela `employee_nicknames` será usada como chave estrangeira para associar
      * os apelidos ao funcionário correspondente.
      * @Column Define o nome da coluna que armazenará os valores da coleção. No caso, "nickname".
+     * @OrderColumn Guarda a posição de cada elemento na lista. Sem ela a List é um bag (sem chave): qualquer
+     * alteração apaga todas as linhas do employee e insere a lista inteira de novo. Com a posição, o Hibernate
+     * identifica a linha de cada elemento e grava só o que mudou: adicionar no fim é 1 insert, remover do fim é
+     * 1 delete e trocar um elemento é 1 update. Remover do meio atualiza as posições seguintes.
+     * Para alterar use os métodos do EmployeeDAO (addNickName, updateNickNames): trocar a lista inteira com
+     * setNickNames faz o Hibernate recriar a coleção (delete + inserts), como no bag.
      * <p>
      * Estrutura da tabela gerada:
      * ```
      * CREATE TABLE employee_nicknames (
      * employee_id BIGINT NOT NULL,        // Chave estrangeira referenciando a chave primária da tabela ob_employees
      * nickname VARCHAR(255),              // Coluna para armazenar cada apelido do empregado
-     * PRIMARY KEY (employee_id, nickname), // Chave primária composta
+     * nickname_order INTEGER NOT NULL,    // Posição do apelido na lista (@OrderColumn)
+     * PRIMARY KEY (employee_id, nickname_order), // Chave primária composta
      * FOREIGN KEY (employee_id) REFERENCES ob_employees(id) // Define employee_id como chave estrangeira
      * );
      * ```
      */
     @ElementCollection
+    @BatchSize(size = 50)//ao acessar a coleção de um employee, carrega a de até 50 employees da sessão em um único select (evita N+1)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "employee_nicknames", joinColumns = @JoinColumn(name = "employee_id"))
     @Column(name = "nickname")
+    @OrderColumn(name = "nickname_order")
     private List<String> nickNames = new ArrayList<>();
 
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "employee_postalcode", joinColumns = @JoinColumn(name = "employee_id"))
     @Column(name = "postal_code")
+    @OrderColumn(name = "postal_code_order")//mesma lógica do nickNames
     private List<Integer> postalCode = new ArrayList<>();
 
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "employee_creditcards", joinColumns = @JoinColumn(name = "employee_id"))
     @Column(name = "credit_cards")
     private Set<String> creditCards = new HashSet<>();
 
     @ElementCollection
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @CollectionTable(name = "employee_phones", joinColumns = @JoinColumn(name = "employee_id"))
     @MapKeyColumn(name = "phone_key") // Nome da coluna que armazena as chaves do mapa (números de telefone)
     @Column(name = "phone_value") // Nome da coluna que armazena os valores do mapa (companhias telefônicas)
@@ -124,6 +166,8 @@ public class Employee implements Serializable {
 
     // ======================= ASSOCIAÇÃO: ONE TO MANY ===============================
     @OneToMany
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)//guarda apenas os ids, os Car vêm da região da entidade Car
     @JoinTable(
             name = "ob_employee_cars", //Nome da nova tabela que irá ter as PK das entidades
             joinColumns = @JoinColumn(name = "employee_id"), //nome da col da entidade que mantem a relação
@@ -137,6 +181,8 @@ public class Employee implements Serializable {
 
     // ======================= ASSOCIAÇÃO: MANY TO MANY ===============================
     @ManyToMany
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "ob_employee_projects", //Nome da nova tabela que irá ter as PK das entidades
             joinColumns = @JoinColumn(name = "employee_id"), //nome da col da entidade que mantem a relação
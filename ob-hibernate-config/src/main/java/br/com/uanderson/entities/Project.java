@@ -1,6 +1,9 @@
 package br.com.uanderson.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.envers.Audited;
 
@@ -13,6 +16,9 @@ import java.util.List;
 @Entity
 @Table(name = "ob_projects")
 @Audited
+@Cacheable
+@BatchSize(size = 50)//proxies de Project na sessão são inicializados em lotes de até 50 ids
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)//cache de segundo nível, região br.com.uanderson.entities.Project
 public class Project implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,145 @@
+package br.com.uanderson.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.PersistenceException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Leitura da tabela coches com JDBC puro, para endpoints de leitura com muitos registros onde o custo do Hibernate
+ * (contexto de persistência, snapshot para dirty checking, cache de segundo nível) não compensa.
+ * <p>
+ * Em relação ao JDBC.main:
+ * <ul>
+ *     <li>conexões emprestadas de um pool HikariCP, e não uma conexão nova do DriverManager por consulta</li>
+ *     <li>PreparedStatement com parâmetros: o SQL é o mesmo para qualquer valor, então o driver reaproveita o
+ *     statement já preparado (no MySQL com cachePrepStmts/useServerPrepStmts, configurados no pool)</li>
+ *     <li>fetch size configurável: o driver traz as linhas em blocos e não o ResultSet inteiro de uma vez
+ *     (no MySQL só com useCursorFetch=true na URL)</li>
+ *     <li>colunas explícitas no select e lidas pela posição no RowMapper</li>
+ * </ul>
+ * Os objetos devolvidos não são gerenciados por nenhuma sessão: alterá-los não altera o banco.
+ */
+public class CocheJdbcRepository implements AutoCloseable {
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    private static final String SELECT = "SELECT id, modelo, fabricante, num_cilindros, num_cv FROM coches";
+    private static final String FIND_ALL = SELECT + " ORDER BY id";
+    private static final String FIND_BY_ID = SELECT + " WHERE id = ?";
+    private static final String FIND_BY_FABRICANTE = SELECT + " WHERE fabricante = ? ORDER BY id";
+
+    public static final RowMapper<Coche> COCHE_MAPPER = (resultSet, rowNum) -> new Coche(
+            resultSet.getInt(1),
+            resultSet.getString(2),
+            resultSet.getString(3),
+            resultSet.getInt(4),
+            resultSet.getDouble(5));
+
+    private final DataSource dataSource;
+    private final int fetchSize;
+    private final HikariDataSource ownPool;//pool criado pelo pooled(), fechado no close()
+
+    /**
+     * Usa um pool existente (ex: o HikariDataSource da aplicação), que continua aberto depois do close()
+     *
+     * @param fetchSize quantidade de linhas trazidas do banco a cada ida, ver DEFAULT_FETCH_SIZE
+     */
+    public CocheJdbcRepository(DataSource dataSource, int fetchSize) {
+        this(dataSource, fetchSize, null);
+    }
+
+    private CocheJdbcRepository(DataSource dataSource, int fetchSize, HikariDataSource ownPool) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetchSize deve ser maior que zero");
+        }
+        this.dataSource = dataSource;
+        this.fetchSize = fetchSize;
+        this.ownPool = ownPool;
+    }
+
+    /**
+     * Cria um repositório com um pool HikariCP próprio para a URL, fechado no close()
+     */
+    public static CocheJdbcRepository pooled(String url, String username, String password, int maxPoolSize, int fetchSize) {
+        HikariDataSource pool = createPool(url, username, password, maxPoolSize);
+        return new CocheJdbcRepository(pool, fetchSize, pool);
+    }
+
+    private static HikariDataSource createPool(String url, String username, String password, int maxPoolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("coche-jdbc-pool");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(maxPoolSize);
+        config.setReadOnly(true);//só consultas: o driver e o banco podem otimizar
+        if (url.startsWith("jdbc:mysql:")) {
+            //cache de PreparedStatement por conexão no driver do MySQL (o H2 já guarda os statements preparados na sessão)
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", "250");
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+            config.addDataSourceProperty("useServerPrepStmts", "true");//o servidor guarda o plano do statement
+            config.addDataSourceProperty("useCursorFetch", "true");//respeita o fetch size
+        }
+        return new HikariDataSource(config);
+    }
+
+    public List<Coche> findAll() {
+        return query(FIND_ALL, COCHE_MAPPER);
+    }
+
+    public Optional<Coche> findById(Integer id) {
+        return query(FIND_BY_ID, COCHE_MAPPER, id).stream().findFirst();
+    }
+
+    public List<Coche> findByFabricante(String fabricante) {
+        return query(FIND_BY_FABRICANTE, COCHE_MAPPER, fabricante);
+    }
+
+    /**
+     * Executa um select com parâmetros posicionais (?) e converte cada linha com o mapper
+     *
+     * @param sql        select com '?' no lugar dos valores, nunca concatenados
+     * @param mapper     converte cada linha
+     * @param parameters valores dos '?' na ordem
+     * @throws PersistenceException com a SQLException como causa
+     */
+    public <T> List<T> query(String sql, RowMapper<T> mapper, Object... parameters) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<T> rows = new ArrayList<>();
+                while (resultSet.next()) {
+                    rows.add(mapper.mapRow(resultSet, rows.size()));
+                }
+                return rows;
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Erro ao executar: " + sql, e);
+        }
+    }
+
+    /**
+     * Fecha o pool se ele foi criado pelo pooled(), um DataSource recebido no construtor continua aberto
+     */
+    @Override
+    public void close() {
+        if (ownPool != null) {
+            ownPool.close();
+        }
+    }
+
+}//class
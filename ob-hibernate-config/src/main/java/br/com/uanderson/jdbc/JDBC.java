@@ -31,6 +31,19 @@ public class JDBC {
     private static final String PASSWORD = ""; // Senha do banco de dados
 
     public static void main(String[] args) {
+        //Forma "manual": conexão nova, Statement e leitura coluna a coluna (ver mainComStatement)
+        //Forma reutilizável: pool de conexões, PreparedStatement e RowMapper (ver CocheJdbcRepository)
+        try (CocheJdbcRepository repository = CocheJdbcRepository.pooled(
+                "jdbc:mysql://127.0.0.1:3306/db-ob-hibernate", "root", "root", // URL, usuário e senha
+                5, CocheJdbcRepository.DEFAULT_FETCH_SIZE)) {
+            System.out.println(repository.findAll());
+        }
+    }
+
+    /**
+     * Versão original: uma conexão nova a cada execução e um Statement sem parâmetros
+     */
+    public static void mainComStatement(String[] args) {
 
         Connection conexion = null; // Conexão com o banco de dados
         Statement statement = null; // Declaração SQL
@@ -88,8 +101,8 @@ public class JDBC {
 -- Criação do DATABASE
 CREATE DATABASE `db-ob-hibernate`;
 
--- Criação da tabela Coche
-CREATE TABLE Coche
+-- Criação da tabela coches
+CREATE TABLE coches
 (
     id            INT AUTO_INCREMENT PRIMARY KEY,
     modelo        VARCHAR(255) NOT NULL,
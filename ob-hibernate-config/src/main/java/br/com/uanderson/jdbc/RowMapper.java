@@ -0,0 +1,20 @@
+package br.com.uanderson.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Converte a linha atual do ResultSet em um objeto. Não deve chamar next(), quem percorre o ResultSet é o repositório.
+ * Ler as colunas pela posição (getInt(1)) evita a busca pelo nome a cada linha.
+ *
+ * @param <T> tipo do objeto criado para cada linha
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * @param resultSet posicionado na linha a converter
+     * @param rowNum    número da linha, começando em 0
+     */
+    T mapRow(ResultSet resultSet, int rowNum) throws SQLException;
+}
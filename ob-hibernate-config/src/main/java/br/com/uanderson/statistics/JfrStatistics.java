@@ -0,0 +1,79 @@
+package br.com.uanderson.statistics;
+
+import jdk.jfr.FlightRecorder;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+import java.time.Duration;
+
+/**
+ * Estatísticas padrão do Hibernate (hibernate.generate_statistics) e, a cada consulta executada:
+ * <ul>
+ *     <li>um evento JFR QueryExecution com a consulta, a quantidade de linhas e o tempo</li>
+ *     <li>um registro no SlowQueryLog se o tempo passar do limite (hibernate.stats.slow_query_threshold_ms)</li>
+ * </ul>
+ * Além disso o JFR grava periodicamente um StatisticsSnapshot com os contadores da SessionFactory.
+ * <p>
+ * Os contadores são os do StatisticsImpl do Hibernate: esta classe só sobrescreve o queryExecuted, que é o único ponto
+ * que o JFR e o SlowQueryLog precisam. Os demais métodos da SPI continuam herdados, então uma atualização do Hibernate
+ * que acrescente métodos no StatisticsImplementor não exige mudança aqui.
+ * <p>
+ * Os eventos só são gravados com uma gravação JFR ativa, ex:
+ * <pre>
+ * java -XX:StartFlightRecording=filename=hibernate.jfr,settings=profile ...   # ou: jcmd PID JFR.start
+ * jfr print --events br.com.uanderson.hibernate.QueryExecution hibernate.jfr
+ * </pre>
+ */
+public class JfrStatistics extends StatisticsImpl {
+    public static final String SLOW_QUERY_THRESHOLD_MS = "hibernate.stats.slow_query_threshold_ms";
+    public static final long DEFAULT_SLOW_QUERY_THRESHOLD_MS = 100;
+
+    private static volatile JfrStatistics current;//SessionFactory atual, lida pelo evento periódico
+
+    static {
+        FlightRecorder.addPeriodicEvent(StatisticsSnapshotEvent.class, JfrStatistics::emitSnapshot);
+    }
+
+    private final SlowQueryLog slowQueryLog;
+
+    public JfrStatistics(SessionFactoryImplementor sessionFactory, Duration slowQueryThreshold) {
+        super(sessionFactory);
+        this.slowQueryLog = new SlowQueryLog(slowQueryThreshold);
+        current = this;
+    }
+
+    /**
+     * Chamado pelo Hibernate depois de cada execução de consulta (HQL, Criteria ou nativa)
+     *
+     * @param query  HQL ou SQL da consulta (Criteria aparece como <criteria>)
+     * @param rows   linhas devolvidas
+     * @param millis tempo da execução
+     */
+    @Override
+    public void queryExecuted(String query, int rows, long millis) {
+        super.queryExecuted(query, rows, millis);
+
+        boolean slow = slowQueryLog.record(query, rows, millis);
+
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        if (event.shouldCommit()) {//sem gravação JFR ativa não monta o evento
+            event.query = query;
+            event.rows = rows;
+            event.executionTime = millis;
+            event.slow = slow;
+            event.commit();
+        }
+    }
+
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    private static void emitSnapshot() {
+        JfrStatistics statistics = current;
+        if (statistics != null && statistics.isStatisticsEnabled()) {
+            StatisticsSnapshotEvent.commit(StatisticsSnapshot.of(statistics));
+        }
+    }
+
+}//class
@@ -0,0 +1,21 @@
+package br.com.uanderson.statistics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+import java.time.Duration;
+
+/**
+ * Registrada em hibernate.stats.factory: a SessionFactory usa o JfrStatistics no lugar do StatisticsImpl padrão
+ */
+public class JfrStatisticsFactory implements StatisticsFactory {
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        Object threshold = sessionFactory.getProperties().get(JfrStatistics.SLOW_QUERY_THRESHOLD_MS);
+        return new JfrStatistics(sessionFactory, Duration.ofMillis(threshold == null
+                ? JfrStatistics.DEFAULT_SLOW_QUERY_THRESHOLD_MS : Long.parseLong(threshold.toString().trim())));
+    }
+
+}//class
@@ -0,0 +1,28 @@
+package br.com.uanderson.statistics;
+
+import jdk.jfr.*;
+
+/**
+ * Evento JFR gravado a cada consulta executada pelo Hibernate.
+ * O Hibernate informa o tempo já medido, então ele vai em um campo e não na duração do evento.
+ */
+@Name("br.com.uanderson.hibernate.QueryExecution")
+@Label("Hibernate Query Execution")
+@Category({"Hibernate", "Query"})
+@Description("Consulta executada pela SessionFactory: HQL/SQL, linhas devolvidas e tempo")
+@StackTrace(false)
+class QueryExecutionEvent extends Event {
+    @Label("Query")
+    String query;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Execution Time")
+    @Timespan(Timespan.MILLISECONDS)
+    long executionTime;
+
+    @Label("Slow")
+    @Description("Tempo maior ou igual ao limite do SlowQueryLog")
+    boolean slow;
+}
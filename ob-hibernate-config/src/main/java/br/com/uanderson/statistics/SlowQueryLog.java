@@ -0,0 +1,96 @@
+package br.com.uanderson.statistics;
+
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Consultas que demoraram pelo menos o limite configurado (hibernate.stats.slow_query_threshold_ms, padrão 100 ms).
+ * Cada uma vai para o logger br.com.uanderson.statistics.SlowQueryLog (nível WARN) e as últimas ficam guardadas em
+ * memória (entries()). Nada de System.out na thread da consulta: o destino e o formato ficam com o binding do SLF4J.
+ */
+public class SlowQueryLog {
+    private static final Logger LOG = LoggerFactory.getLogger(SlowQueryLog.class);
+    public static final int MAX_ENTRIES = 100;
+
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>(MAX_ENTRIES);
+    private volatile long thresholdMillis;
+
+    SlowQueryLog(Duration threshold) {
+        setThreshold(threshold);
+    }
+
+    /**
+     * @return o SlowQueryLog da SessionFactory (precisa do hibernate.stats.factory=JfrStatisticsFactory)
+     */
+    public static SlowQueryLog of(SessionFactory sessionFactory) {
+        if (!(sessionFactory.getStatistics() instanceof JfrStatistics statistics)) {
+            throw new IllegalStateException("hibernate.stats.factory não é o " + JfrStatisticsFactory.class.getName());
+        }
+        return statistics.getSlowQueryLog();
+    }
+
+    /**
+     * @return true se a consulta foi considerada lenta
+     */
+    boolean record(String query, int rows, long millis) {
+        if (millis < thresholdMillis) {
+            return false;
+        }
+
+        Entry entry = new Entry(Instant.now(), query, rows, millis, Thread.currentThread().getName());
+        synchronized (entries) {//só as consultas lentas chegam aqui
+            if (entries.size() == MAX_ENTRIES) {
+                entries.removeFirst();
+            }
+            entries.addLast(entry);
+        }
+        LOG.warn("[slow-query] {} ms, {} linhas: {}", millis, rows, query);
+        return true;
+    }
+
+    /**
+     * @return as últimas consultas lentas, da mais antiga para a mais recente
+     */
+    public List<Entry> entries() {
+        synchronized (entries) {
+            return List.copyOf(entries);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public Duration getThreshold() {
+        return Duration.ofMillis(thresholdMillis);
+    }
+
+    /**
+     * Altera o limite em tempo de execução (ex: Duration.ZERO registra todas as consultas)
+     */
+    public void setThreshold(Duration threshold) {
+        if (threshold.isNegative()) {
+            throw new IllegalArgumentException("threshold não pode ser negativo");
+        }
+        this.thresholdMillis = threshold.toMillis();
+    }
+
+    /**
+     * @param at     quando terminou
+     * @param query  HQL ou SQL
+     * @param rows   linhas devolvidas
+     * @param millis tempo da execução
+     * @param thread thread que executou
+     */
+    public record Entry(Instant at, String query, int rows, long millis, String thread) {
+    }
+
+}//class
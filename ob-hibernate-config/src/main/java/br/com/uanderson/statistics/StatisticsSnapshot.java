@@ -0,0 +1,86 @@
+package br.com.uanderson.statistics;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cópia dos contadores da SessionFactory em um instante (acumulados desde a criação ou do último statistics.clear()).
+ * Duas cópias podem ser subtraídas para obter o que aconteceu no intervalo.
+ */
+public record StatisticsSnapshot(Instant takenAt,
+                                 long sessionsOpened, long transactions, long flushes, long prepareStatements,
+                                 long queryExecutions, long queryExecutionMaxMillis, String slowestQuery,
+                                 long entityLoads, long entityFetches, long entityInserts, long entityUpdates,
+                                 long entityDeletes, long collectionLoads, long collectionFetches,
+                                 long secondLevelCacheHits, long secondLevelCacheMisses, long secondLevelCachePuts,
+                                 long queryCacheHits, long queryCacheMisses,
+                                 long queryPlanCacheHits, long queryPlanCacheMisses) {
+
+    public static StatisticsSnapshot of(SessionFactory sessionFactory) {
+        return of(sessionFactory.getStatistics());
+    }
+
+    public static StatisticsSnapshot of(Statistics statistics) {
+        return new StatisticsSnapshot(Instant.now(),
+                statistics.getSessionOpenCount(), statistics.getTransactionCount(), statistics.getFlushCount(),
+                statistics.getPrepareStatementCount(),
+                statistics.getQueryExecutionCount(), statistics.getQueryExecutionMaxTime(),
+                statistics.getQueryExecutionMaxTimeQueryString(),
+                statistics.getEntityLoadCount(), statistics.getEntityFetchCount(), statistics.getEntityInsertCount(),
+                statistics.getEntityUpdateCount(), statistics.getEntityDeleteCount(),
+                statistics.getCollectionLoadCount(), statistics.getCollectionFetchCount(),
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(),
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryPlanCacheHitCount(), statistics.getQueryPlanCacheMissCount());
+    }
+
+    /**
+     * @return as consultas com maior tempo máximo de execução, da mais lenta para a mais rápida
+     */
+    public static List<QueryTiming> slowestQueries(Statistics statistics, int limit) {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> {
+                    QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+                    return new QueryTiming(query, queryStatistics.getExecutionCount(),
+                            queryStatistics.getExecutionAvgTime(), queryStatistics.getExecutionMaxTime(),
+                            queryStatistics.getExecutionRowCount());
+                })
+                .sorted(Comparator.comparingLong(QueryTiming::maxMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public double secondLevelCacheHitRatio() {
+        return ratio(secondLevelCacheHits, secondLevelCacheMisses);
+    }
+
+    public double queryCacheHitRatio() {
+        return ratio(queryCacheHits, queryCacheMisses);
+    }
+
+    public double queryPlanCacheHitRatio() {
+        return ratio(queryPlanCacheHits, queryPlanCacheMisses);
+    }
+
+    private static double ratio(long hits, long misses) {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     * @param query      HQL ou SQL
+     * @param executions quantidade de execuções
+     * @param avgMillis  tempo médio
+     * @param maxMillis  maior tempo
+     * @param rows       total de linhas devolvidas
+     */
+    public record QueryTiming(String query, long executions, long avgMillis, long maxMillis, long rows) {
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.uanderson.statistics;
+
+import jdk.jfr.*;
+
+/**
+ * Evento JFR periódico com os contadores acumulados da SessionFactory (ver StatisticsSnapshot).
+ * O período padrão pode ser alterado na gravação: jcmd PID JFR.start br.com.uanderson.hibernate.StatisticsSnapshot#period=1s
+ */
+@Name("br.com.uanderson.hibernate.StatisticsSnapshot")
+@Label("Hibernate Statistics Snapshot")
+@Category({"Hibernate", "Statistics"})
+@Period("5 s")
+@StackTrace(false)
+class StatisticsSnapshotEvent extends Event {
+    @Label("Sessions Opened")
+    long sessionsOpened;
+    @Label("Transactions")
+    long transactions;
+    @Label("Flushes")
+    long flushes;
+    @Label("Prepared Statements")
+    long prepareStatements;
+    @Label("Query Executions")
+    long queryExecutions;
+    @Label("Query Execution Max Time")
+    @Timespan(Timespan.MILLISECONDS)
+    long queryExecutionMaxTime;
+    @Label("Slowest Query")
+    String slowestQuery;
+    @Label("Entity Loads")
+    long entityLoads;
+    @Label("Entity Fetches")
+    long entityFetches;
+    @Label("Entity Inserts")
+    long entityInserts;
+    @Label("Entity Updates")
+    long entityUpdates;
+    @Label("Entity Deletes")
+    long entityDeletes;
+    @Label("Collection Loads")
+    long collectionLoads;
+    @Label("Collection Fetches")
+    long collectionFetches;
+    @Label("Second Level Cache Hit Ratio")
+    @Percentage
+    double secondLevelCacheHitRatio;
+    @Label("Query Cache Hit Ratio")
+    @Percentage
+    double queryCacheHitRatio;
+    @Label("Query Plan Cache Hit Ratio")
+    @Percentage
+    double queryPlanCacheHitRatio;
+
+    static void commit(StatisticsSnapshot snapshot) {
+        StatisticsSnapshotEvent event = new StatisticsSnapshotEvent();
+        event.sessionsOpened = snapshot.sessionsOpened();
+        event.transactions = snapshot.transactions();
+        event.flushes = snapshot.flushes();
+        event.prepareStatements = snapshot.prepareStatements();
+        event.queryExecutions = snapshot.queryExecutions();
+        event.queryExecutionMaxTime = snapshot.queryExecutionMaxMillis();
+        event.slowestQuery = snapshot.slowestQuery();
+        event.entityLoads = snapshot.entityLoads();
+        event.entityFetches = snapshot.entityFetches();
+        event.entityInserts = snapshot.entityInserts();
+        event.entityUpdates = snapshot.entityUpdates();
+        event.entityDeletes = snapshot.entityDeletes();
+        event.collectionLoads = snapshot.collectionLoads();
+        event.collectionFetches = snapshot.collectionFetches();
+        event.secondLevelCacheHitRatio = snapshot.secondLevelCacheHitRatio();
+        event.queryCacheHitRatio = snapshot.queryCacheHitRatio();
+        event.queryPlanCacheHitRatio = snapshot.queryPlanCacheHitRatio();
+        event.commit();
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.uanderson.util;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Publica as operações de escrita registradas pelo EmployeeInterceptor para os assinantes (log, métricas, auditoria...).
+ * <p>
+ * A thread que grava no banco só coloca o evento em uma fila limitada (offer, nunca bloqueia) e uma thread
+ * separada entrega aos assinantes. Assim um assinante lento (ex: System.out) não atrasa as transações. Se a fila
+ * estiver cheia o evento é descartado e contado em dropped(). Sem assinantes nenhum evento é criado.
+ */
+public final class EntityOperationEvents {
+    public static final int CAPACITY = 10_000;
+    /**
+     * Assinante que imprime cada evento, ex: EntityOperationEvents.subscribe(EntityOperationEvents.LOG)
+     */
+    public static final Consumer<Event> LOG = event -> System.out.println("[entity-event] " + event);
+
+    private static final BlockingQueue<Event> QUEUE = new ArrayBlockingQueue<>(CAPACITY);
+    private static final List<Consumer<Event>> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+    private static final LongAdder PUBLISHED = new LongAdder();
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final LongAdder DELIVERED = new LongAdder();
+    private static Thread dispatcher;
+
+    private EntityOperationEvents() {
+    }
+
+    public static synchronized void subscribe(Consumer<Event> subscriber) {
+        SUBSCRIBERS.add(subscriber);
+        if (dispatcher == null) {//a thread só é criada quando alguém assina
+            dispatcher = new Thread(EntityOperationEvents::dispatch, "entity-operation-events");
+            dispatcher.setDaemon(true);//não impede o encerramento da aplicação
+            dispatcher.start();
+        }
+    }
+
+    public static void unsubscribe(Consumer<Event> subscriber) {
+        SUBSCRIBERS.remove(subscriber);
+    }
+
+    static boolean hasSubscribers() {
+        return !SUBSCRIBERS.isEmpty();
+    }
+
+    static void publish(Event event) {
+        if (QUEUE.offer(event)) {
+            PUBLISHED.increment();
+        } else {
+            DROPPED.increment();//fila cheia: descarta em vez de bloquear quem está gravando
+        }
+    }
+
+    /**
+     * Aguarda os eventos já publicados serem entregues aos assinantes
+     *
+     * @return false se o tempo acabou antes da fila esvaziar
+     */
+    public static boolean awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (DELIVERED.sum() < PUBLISHED.sum()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    /**
+     * @return eventos colocados na fila desde o início da aplicação
+     */
+    public static long published() {
+        return PUBLISHED.sum();
+    }
+
+    /**
+     * @return eventos descartados porque a fila estava cheia
+     */
+    public static long dropped() {
+        return DROPPED.sum();
+    }
+
+    private static void dispatch() {
+        while (true) {
+            try {
+                Event event = QUEUE.take();
+                for (Consumer<Event> subscriber : SUBSCRIBERS) {
+                    try {
+                        subscriber.accept(event);
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();//um assinante com erro não derruba a entrega para os outros
+                    }
+                }
+                DELIVERED.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public enum Operation {
+        PERSIST,
+        UPDATE,
+        DELETE
+    }
+
+    /**
+     * @param entity       nome da entidade
+     * @param operation    PERSIST, UPDATE ou DELETE
+     * @param id           id da entidade
+     * @param latencyNanos tempo da operação no flush que a gravou ou EntityOperationMetrics.UNKNOWN_LATENCY
+     * @param thread       thread que executou a operação
+     */
+    public record Event(String entity, Operation operation, Object id, long latencyNanos, String thread) {
+    }
+
+}//class
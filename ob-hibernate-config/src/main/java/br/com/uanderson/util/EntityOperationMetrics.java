@@ -0,0 +1,113 @@
+package br.com.uanderson.util;
+
+import br.com.uanderson.util.EntityOperationEvents.Operation;
+import org.hibernate.Hibernate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Quantidade e latência das operações de escrita (persist, update, delete) por entidade, registradas pelo EmployeeInterceptor.
+ * <p>
+ * Contadores sem lock (LongAdder): várias threads gravando ao mesmo tempo não disputam o mesmo contador.
+ * A latência é a parte do flush que gravou a operação no banco (ver EmployeeInterceptor). Os inserts de entidades com
+ * GenerationType.IDENTITY são executados dentro do persist(), fora de um flush: entram na contagem, mas sem latência.
+ * Não guarda estado por sessão ou por thread: as operações pendentes ficam na instância do interceptor de cada sessão.
+ */
+public final class EntityOperationMetrics {
+    /**
+     * Entidades representadas como Map (ex: as linhas _AUD gravadas pelo Envers), o Map não informa o nome da entidade
+     */
+    public static final String DYNAMIC_MAP_ENTITY = "dynamic-map";
+    /**
+     * Latência desconhecida: o statement não foi executado por um flush (insert com IDENTITY)
+     */
+    public static final long UNKNOWN_LATENCY = -1;
+    private static final Map<String, Counters> COUNTERS = new ConcurrentHashMap<>();
+
+    private EntityOperationMetrics() {
+    }
+
+    /**
+     * Chamado pelo EmployeeInterceptor no fim do flush, para cada operação gravada: registra e publica o evento
+     *
+     * @param latencyNanos latência da operação ou UNKNOWN_LATENCY
+     */
+    public static void record(Object entity, Object id, Operation operation, long latencyNanos) {
+        String entityName = entity instanceof Map ? DYNAMIC_MAP_ENTITY : Hibernate.getClass(entity).getName();
+        counters(entityName, operation).record(latencyNanos);
+
+        if (EntityOperationEvents.hasSubscribers()) {
+            Object entityId = id != null ? id//no persist com IDENTITY o id só existe depois do insert
+                    : HibernateUtil.getSessionFactory().getPersistenceUnitUtil().getIdentifier(entity);
+            EntityOperationEvents.publish(new EntityOperationEvents.Event(
+                    entityName, operation, entityId, latencyNanos, Thread.currentThread().getName()));
+        }
+    }
+
+    private static Counters counters(String entity, Operation operation) {
+        return COUNTERS.computeIfAbsent(entity + '#' + operation, key -> new Counters(entity, operation));
+    }
+
+    /**
+     * @return estatísticas atuais, ordenadas por entidade e operação
+     */
+    public static List<OperationStats> snapshot() {
+        List<OperationStats> stats = new ArrayList<>();
+        COUNTERS.values().forEach(counters -> stats.add(counters.toStats()));
+        stats.sort(Comparator.comparing(OperationStats::entity).thenComparing(OperationStats::operation));
+        return stats;
+    }
+
+    public static void reset() {
+        COUNTERS.clear();
+    }
+
+    private static final class Counters {
+        private final String entity;
+        private final Operation operation;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder timed = new LongAdder();//operações com latência medida
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private Counters(String entity, Operation operation) {
+            this.entity = entity;
+            this.operation = operation;
+        }
+
+        private void record(long latencyNanos) {
+            count.increment();
+            if (latencyNanos == UNKNOWN_LATENCY) {
+                return;
+            }
+            timed.increment();
+            totalNanos.add(latencyNanos);
+            maxNanos.accumulate(latencyNanos);
+        }
+
+        private OperationStats toStats() {
+            long timedOperations = timed.sum();
+            long avgNanos = timedOperations == 0 ? 0 : totalNanos.sum() / timedOperations;
+            return new OperationStats(entity, operation, count.sum(),
+                    TimeUnit.NANOSECONDS.toMicros(avgNanos), TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+        }
+    }
+
+    /**
+     * @param entity    nome da entidade (ex: br.com.uanderson.entities.Employee)
+     * @param operation PERSIST, UPDATE ou DELETE
+     * @param count     quantidade de operações gravadas no banco
+     * @param avgMicros latência média das operações com latência medida
+     * @param maxMicros maior latência
+     */
+    public record OperationStats(String entity, Operation operation, long count, long avgMicros, long maxMicros) {
+    }
+
+}//class
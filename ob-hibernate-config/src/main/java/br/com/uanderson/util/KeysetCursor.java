@@ -0,0 +1,34 @@
+package br.com.uanderson.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição do último registro de uma página na paginação keyset: o valor da coluna de ordenação e o id
+ * (desempate, para o cursor ser único). A próxima página começa depois de (sortKey, id), usando o índice,
+ * então o custo é o mesmo na primeira página e na milésima. Com offset o banco lê e descarta todas as linhas anteriores.
+ * <p>
+ * O token é opaco para quem chama: Base64 de "sortKey|id".
+ */
+public record KeysetCursor(String sortKey, long id) {
+    private static final char SEPARATOR = '|';
+
+    public static String encode(Object sortKey, Long id) {
+        String raw = sortKey + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException se o token não foi gerado pelo encode
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);//o sortKey pode conter o separador, o id não
+            return new KeysetCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + token, e);
+        }
+    }
+
+}//class
@@ -0,0 +1,154 @@
+package br.com.uanderson.util;
+
+import br.com.uanderson.entities.Employee;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Registro das consultas do EmployeeDAOImpl: são montadas uma única vez, na criação da SessionFactory, e registradas
+ * como named queries. Os DAOs só fazem session.createNamedQuery(nome) e informam os parâmetros.
+ * <p>
+ * Os valores entram sempre como parâmetros (:nome), nunca concatenados, assim a mesma consulta serve para qualquer valor.
+ * <p>
+ * Por que HQL e não as árvores Criteria? No Hibernate 6 o cache de planos (HQL -> SQL) usa o texto da consulta como chave.
+ * Uma consulta Criteria, mesmo registrada como named query, é copiada e traduzida para SQL em toda execução. Com
+ * setQueryPlanCacheable(true), cada cópia vira uma nova entrada e o cache enche até o limite sem nenhum acerto.
+ * Cada HQL abaixo é o equivalente exato do Criteria que o finder montava a cada chamada.
+ */
+public final class QueryRegistry {
+    // ======================= EQUIVALENTES DOS FINDERS CRITERIA ===============================
+    public static final String EMPLOYEE_FIND_ALL = "Employee.findAll";
+    public static final String EMPLOYEE_FIND_BY_ID = "Employee.findById";
+    public static final String EMPLOYEE_AVG_AGE = "Employee.avgAge";
+    public static final String EMPLOYEE_ABOVE_AVERAGE_SALARY = "Employee.aboveAverageSalary";
+    public static final String EMPLOYEE_BY_LAST_NAME_LIKE = "Employee.byLastNameLike";
+    public static final String EMPLOYEE_BY_AGE_GREATER = "Employee.byAgeGreater";
+    public static final String EMPLOYEE_BY_AGE_BETWEEN = "Employee.byAgeBetween";
+    public static final String EMPLOYEE_BY_AGE_BETWEEN_AND_CATEGORY = "Employee.byAgeBetweenAndCategory";
+
+    // ======================= PAGINAÇÃO KEYSET (primeira página e páginas seguintes, ver keyset()) ===============================
+    public static final String EMPLOYEE_BY_LAST_NAME_LIKE_PAGE = "Employee.byLastNameLike.page";
+    public static final String EMPLOYEE_BY_LAST_NAME_LIKE_NEXT_PAGE = "Employee.byLastNameLike.nextPage";
+    public static final String EMPLOYEE_BY_AGE_GREATER_PAGE = "Employee.byAgeGreater.page";
+    public static final String EMPLOYEE_BY_AGE_GREATER_NEXT_PAGE = "Employee.byAgeGreater.nextPage";
+    public static final String EMPLOYEE_BY_AGE_BETWEEN_PAGE = "Employee.byAgeBetween.page";
+    public static final String EMPLOYEE_BY_AGE_BETWEEN_NEXT_PAGE = "Employee.byAgeBetween.nextPage";
+    public static final String EMPLOYEE_BY_AGE_BETWEEN_AND_CATEGORY_PAGE = "Employee.byAgeBetweenAndCategory.page";
+    public static final String EMPLOYEE_BY_AGE_BETWEEN_AND_CATEGORY_NEXT_PAGE = "Employee.byAgeBetweenAndCategory.nextPage";
+
+    // ======================= HQL ===============================
+    public static final String EMPLOYEE_COUNT = "Employee.count";
+    public static final String EMPLOYEE_BY_AGE = "Employee.byAge";
+
+    // ======================= OPERAÇÕES EM LOTE (UPDATE/DELETE) ===============================
+    public static final String EMPLOYEE_DELETE_BY_IDS = "Employee.deleteByIds";
+    public static final String EMPLOYEE_RAISE_SALARY_BY_CATEGORY = "Employee.raiseSalaryByCategory";
+    public static final String EMPLOYEE_UPDATE_CATEGORY_WHERE_AGE_BETWEEN = "Employee.updateCategoryWhereAgeBetween";
+
+    private static final Map<String, Query> QUERIES = new LinkedHashMap<>();
+
+    static {
+        //criteriaQuery.select(root)
+        QUERIES.put(EMPLOYEE_FIND_ALL, new Query("from Employee e", Employee.class));
+        //criteriaQuery.select(root).where(builder.equal(root.get("id"), id))
+        QUERIES.put(EMPLOYEE_FIND_BY_ID, new Query("from Employee e where e.id = :id", Employee.class));
+        //criteriaQuery.select(builder.avg(root.get("age")))
+        QUERIES.put(EMPLOYEE_AVG_AGE, new Query("select avg(e.age) from Employee e", Double.class));
+        //criteriaQuery.select(root).where(builder.greaterThan(root.get("salary"), subquery(avg(salary))))
+        QUERIES.put(EMPLOYEE_ABOVE_AVERAGE_SALARY, new Query(
+                "from Employee e where e.salary > (select avg(s.salary) from Employee s)", Employee.class));
+        //builder.like(root.get("lastName"), "%" + lastName + "%"), o DAO informa o padrão já com os '%'
+        QUERIES.put(EMPLOYEE_BY_LAST_NAME_LIKE, new Query("from Employee e where e.lastName like :pattern", Employee.class));
+        //builder.greaterThan(root.get("age"), age)
+        QUERIES.put(EMPLOYEE_BY_AGE_GREATER, new Query("from Employee e where e.age > :age", Employee.class));
+        //builder.between(root.get("age"), min, max)
+        QUERIES.put(EMPLOYEE_BY_AGE_BETWEEN, new Query("from Employee e where e.age between :min and :max", Employee.class));
+        //builder.and(builder.between(root.get("age"), ageMin, ageMax), builder.equal(root.get("category"), category))
+        QUERIES.put(EMPLOYEE_BY_AGE_BETWEEN_AND_CATEGORY, new Query(
+                "from Employee e where e.age between :ageMin and :ageMax and e.category = :category", Employee.class));
+
+        keyset(EMPLOYEE_BY_LAST_NAME_LIKE_PAGE, EMPLOYEE_BY_LAST_NAME_LIKE_NEXT_PAGE,
+                "e.lastName like :pattern", "lastName");
+        keyset(EMPLOYEE_BY_AGE_GREATER_PAGE, EMPLOYEE_BY_AGE_GREATER_NEXT_PAGE,
+                "e.age > :age", "age");
+        keyset(EMPLOYEE_BY_AGE_BETWEEN_PAGE, EMPLOYEE_BY_AGE_BETWEEN_NEXT_PAGE,
+                "e.age between :min and :max", "age");
+        keyset(EMPLOYEE_BY_AGE_BETWEEN_AND_CATEGORY_PAGE, EMPLOYEE_BY_AGE_BETWEEN_AND_CATEGORY_NEXT_PAGE,
+                "e.age between :ageMin and :ageMax and e.category = :category", "age");
+
+        QUERIES.put(EMPLOYEE_COUNT, new Query("select count(e) from Employee e", Long.class));
+        QUERIES.put(EMPLOYEE_BY_AGE, new Query("from Employee e where e.age = :age", Employee.class));
+
+        //resultType null: mutation query (executeUpdate devolve a quantidade de linhas afetadas)
+        QUERIES.put(EMPLOYEE_DELETE_BY_IDS, new Query("delete from Employee e where e.id in :ids", null));
+        QUERIES.put(EMPLOYEE_RAISE_SALARY_BY_CATEGORY, new Query(
+                "update Employee e set e.salary = e.salary * :factor where e.category = :category", null));
+        QUERIES.put(EMPLOYEE_UPDATE_CATEGORY_WHERE_AGE_BETWEEN, new Query(
+                "update Employee e set e.category = :category where e.age between :ageMin and :ageMax", null));
+    }
+
+    private QueryRegistry() {
+    }
+
+    /**
+     * Registra as duas consultas de um finder paginado por keyset em (sortAttribute, id): a da primeira página e a
+     * das seguintes, que começa depois do cursor (:sortKey, :id). São duas named queries, e não um predicado opcional,
+     * para cada uma ter um texto fixo e ficar no cache de planos.
+     */
+    private static void keyset(String pageName, String nextPageName, String filter, String sortAttribute) {
+        String sortKey = "e." + sortAttribute;
+        String orderBy = " order by " + sortKey + ", e.id";
+        QUERIES.put(pageName, new Query("from Employee e where " + filter + orderBy, Employee.class));
+        QUERIES.put(nextPageName, new Query("from Employee e where " + filter
+                + " and (" + sortKey + " > :sortKey or (" + sortKey + " = :sortKey and e.id > :id))" + orderBy, Employee.class));
+    }
+
+    /**
+     * Chamado pelo HibernateUtil logo depois de criar a SessionFactory. Valida cada consulta (erro de HQL
+     * falha na inicialização e não na primeira chamada) e deixa a interpretação no cache de planos.
+     */
+    static void register(SessionFactory sessionFactory) {
+        try (Session session = sessionFactory.openSession()) {
+            QUERIES.forEach((name, query) -> sessionFactory.addNamedQuery(name, query.resultType() == null
+                    ? (jakarta.persistence.Query) session.createMutationQuery(query.hql())
+                    : session.createQuery(query.hql(), query.resultType())));
+        }
+    }
+
+    /**
+     * @return nome -> HQL das consultas registradas
+     */
+    public static Map<String, String> queries() {
+        Map<String, String> queries = new LinkedHashMap<>();
+        QUERIES.forEach((name, query) -> queries.put(name, query.hql()));
+        return queries;
+    }
+
+    /**
+     * @return acertos e falhas do cache de planos de consulta desde a criação da SessionFactory (ou do último statistics.clear())
+     */
+    public static PlanCacheStats planCacheStats() {
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        return new PlanCacheStats(statistics.getQueryPlanCacheHitCount(), statistics.getQueryPlanCacheMissCount());
+    }
+
+    private record Query(String hql, Class<?> resultType) {
+    }
+
+    /**
+     * @param hits   execuções que reaproveitaram o plano (HQL já interpretado e SQL já gerado)
+     * @param misses execuções que precisaram interpretar a consulta e gerar o SQL
+     */
+    public record PlanCacheStats(long hits, long misses) {
+
+        public double hitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+}//class
@@ -0,0 +1,79 @@
+package br.com.uanderson.util;
+
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estatísticas por região do cache de segundo nível.
+ * <p>
+ * Hits, misses e puts vêm das estatísticas do Hibernate (hibernate.generate_statistics=true).
+ * As evictions (remoções por tamanho ou TTL) quem conhece é o provider do cache, então são lidas
+ * do MBean JCache CacheStatistics (monitoring.statistics = true no application.conf).
+ */
+public final class SecondLevelCacheStatistics {
+
+    private SecondLevelCacheStatistics() {
+    }
+
+    /**
+     * @return uma linha por região (entidades, coleções e consultas)
+     */
+    public static List<RegionStats> snapshot() {
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        List<RegionStats> regions = new ArrayList<>();
+
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            regions.add(new RegionStats(
+                    regionName,
+                    region.getHitCount(),
+                    region.getMissCount(),
+                    region.getPutCount(),
+                    evictions(regionName)
+            ));
+        }
+
+        return regions;
+    }
+
+    /**
+     * Zera as estatísticas do Hibernate (as do JCache são cumulativas)
+     */
+    public static void clear() {
+        HibernateUtil.getSessionFactory().getStatistics().clear();
+    }
+
+    private static long evictions(String regionName) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName pattern = new ObjectName("javax.cache:type=CacheStatistics,CacheManager=*,Cache="
+                    + ObjectName.quote(regionName));
+            long evictions = 0;
+            for (ObjectName name : server.queryNames(pattern, null)) {
+                evictions += (Long) server.getAttribute(name, "CacheEvictions");
+            }
+            return evictions;
+        } catch (JMException e) {
+            return -1;//estatísticas JCache desabilitadas
+        }
+    }
+
+    public record RegionStats(String region, long hits, long misses, long puts, long evictions) {
+
+        public double hitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+}//class
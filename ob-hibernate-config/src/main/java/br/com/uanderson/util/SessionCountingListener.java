@@ -0,0 +1,33 @@
+package br.com.uanderson.util;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Listener registrado em hibernate.session.events.auto. O Hibernate cria uma instância
+ * por sessão, então o construtor marca a abertura de uma sessão na thread atual.
+ * <p>
+ * Os contadores são por thread, pois uma sessão é sempre usada pela thread que a abriu.
+ */
+public class SessionCountingListener extends BaseSessionEventListener {
+    private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[2]);
+    private static final int SESSIONS = 0;
+    private static final int CONNECTIONS = 1;
+
+    public SessionCountingListener() {
+        COUNTERS.get()[SESSIONS]++;
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        COUNTERS.get()[CONNECTIONS]++;
+    }
+
+    static long sessionsOpened() {
+        return COUNTERS.get()[SESSIONS];
+    }
+
+    static long connectionsAcquired() {
+        return COUNTERS.get()[CONNECTIONS];
+    }
+
+}//class
@@ -0,0 +1,123 @@
+package br.com.uanderson.util;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Unit of Work: executa uma operação lógica dentro de UMA sessão e UMA transação.
+ * <p>
+ * Usa a sessão associada a thread atual (current_session_context_class=thread no hibernate.cfg.xml),
+ * então chamadas aninhadas de DAOs (ex: deleteById -> findById) reutilizam a mesma sessão e a mesma
+ * conexão JDBC, em vez de abrir uma nova. Somente a chamada mais externa abre, confirma (commit)
+ * ou desfaz (rollback) a transação, e a sessão é sempre fechada ao final.
+ * <p>
+ * Se uma chamada aninhada falhar, a transação é marcada como rollback-only e a chamada mais externa
+ * lança IllegalStateException depois do rollback, mesmo que o erro tenha sido capturado no meio do caminho.
+ */
+public final class TransactionTemplate {
+    private static final LongAdder OPERATIONS = new LongAdder();
+    private static final LongAdder SESSIONS_OPENED = new LongAdder();
+    private static final LongAdder CONNECTIONS_ACQUIRED = new LongAdder();
+    private static final ThreadLocal<OperationStats> LAST_OPERATION = new ThreadLocal<>();
+
+    private TransactionTemplate() {
+    }
+
+    /**
+     * Executa o trabalho dentro da unidade de trabalho da thread atual e devolve o seu resultado
+     *
+     * @throws IllegalStateException se a transação foi marcada como rollback-only por uma chamada aninhada
+     */
+    public static <T> T execute(Function<Session, T> work) {
+        long sessionsBefore = SessionCountingListener.sessionsOpened();
+        long connectionsBefore = SessionCountingListener.connectionsAcquired();
+
+        Session session = HibernateUtil.getSessionFactory().getCurrentSession();
+        Transaction transaction = session.getTransaction();
+
+        if (transaction.isActive()) {
+            //Chamada aninhada: participa da transação de quem chamou
+            try {
+                return work.apply(session);
+            } catch (RuntimeException e) {
+                transaction.setRollbackOnly();//quem abriu a transação é quem decide, aqui só marcamos
+                throw e;
+            }
+        }
+
+        try {
+            transaction.begin();
+
+            T result = work.apply(session);
+
+            if (transaction.getRollbackOnly()) {
+                //uma chamada aninhada falhou e o erro foi tratado por ela (ex: DAO que só imprime a exceção):
+                //devolver o result daria a entender que o trabalho foi gravado
+                transaction.rollback();
+                throw new IllegalStateException("transação marcada como rollback-only");
+            }
+            transaction.commit();
+            return result;
+
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();//desfaz a transação caso ocorra erro
+            }
+            throw e;
+        } finally {
+            if (session.isOpen()) {
+                session.close();//no contexto thread o commit/rollback já fecha, aqui é só garantia
+            }
+            record(SessionCountingListener.sessionsOpened() - sessionsBefore,
+                    SessionCountingListener.connectionsAcquired() - connectionsBefore);
+        }
+    }
+
+    /**
+     * Executa o trabalho dentro da unidade de trabalho da thread atual, sem resultado
+     */
+    public static void executeWithoutResult(Consumer<Session> work) {
+        execute(session -> {
+            work.accept(session);
+            return null;
+        });
+    }
+
+    /**
+     * @return sessões e conexões JDBC usadas pela última operação lógica executada na thread atual
+     */
+    public static OperationStats lastOperationStats() {
+        return LAST_OPERATION.get();
+    }
+
+    /**
+     * @return média de sessões abertas por operação lógica desde o início da aplicação
+     */
+    public static double sessionsPerOperation() {
+        long operations = OPERATIONS.sum();
+        return operations == 0 ? 0 : (double) SESSIONS_OPENED.sum() / operations;
+    }
+
+    /**
+     * @return média de conexões JDBC obtidas por operação lógica desde o início da aplicação
+     */
+    public static double connectionsPerOperation() {
+        long operations = OPERATIONS.sum();
+        return operations == 0 ? 0 : (double) CONNECTIONS_ACQUIRED.sum() / operations;
+    }
+
+    private static void record(long sessions, long connections) {
+        OPERATIONS.increment();
+        SESSIONS_OPENED.add(sessions);
+        CONNECTIONS_ACQUIRED.add(connections);
+        LAST_OPERATION.set(new OperationStats(sessions, connections));
+    }
+
+    public record OperationStats(long sessionsOpened, long connectionsAcquired) {
+    }
+
+}//class
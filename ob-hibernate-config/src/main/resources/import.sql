@@ -15,3 +15,6 @@ INSERT INTO ob_directions(city, country, street) VALUES   ('Tokyo', 'Japan', 'Sh
 INSERT INTO ob_employees(age, birth_date, married, salary, company_id, direction_pk, register_date, first_name,email, last_name, category) VALUES (28, '1996-03-14', true, 50000, 1, 1, '2024-08-25', 'John', 'john.doe@email.com', 'Doe', 'ANALYST');
 INSERT INTO ob_employees(age, birth_date, married, salary, company_id, direction_pk, register_date, first_name,email, last_name, category) VALUES (35, '1989-11-22', false, 75000, 2, 2, '2024-08-26', 'Jane', 'jane.smith@email.com', 'Smith', 'JUNIOR');
 INSERT INTO ob_employees(age, birth_date, married, salary, company_id, direction_pk, register_date, first_name,email, last_name, category) VALUES (42, '1982-07-05', true, 60000, 3, 3, '2024-08-27', 'Robert', 'robert.brown@email.com', 'Brown', 'SENIOR');
+
+-- Índice do REVINFO para buscar a revisão de um momento (RevisionHistoryDAO.findAsOf): select max(REV) from REVINFO where REVTSTMP <= ?
+CREATE INDEX idx_revinfo_revtstmp ON REVINFO (REVTSTMP);
@@ -0,0 +1,110 @@
+package br.com.uanderson.dao;
+
+import br.com.uanderson.dao.impl.CarDAOImpl;
+import br.com.uanderson.dto.BatchResult;
+import br.com.uanderson.entities.Car;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para as operações em lote do BatchCrudDAO, com 1000 cars (lotes de hibernate.jdbc.batch_size = 50)
+ */
+class BatchCrudDAOTest {
+    private static final int CARS = 1000;
+    private static final int BATCH_SIZE = 50;
+
+    CarDAO dao;
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        dao = new CarDAOImpl();
+        statistics = HibernateUtil.getSessionFactory().getStatistics();
+    }
+
+    @Test
+    void createUpdateAndDeleteInBatches() {
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < CARS; i++) {
+            cars.add(new Car(null, "Batch " + i % 10, 1.0 + i % 20 / 10.0, 2000 + i % 25));
+        }
+
+        BatchResult created = dao.createAll(cars);
+        print("createAll", created);
+        assertEquals(CARS, created.processed());
+        assertEquals(CARS / BATCH_SIZE, created.batchDurations().size());
+        assertTrue(created.commit().isPresent());
+        cars.forEach(car -> assertNotNull(car.getId()));
+
+        cars.forEach(car -> car.setCc(car.getCc() + 1));
+        statistics.clear();
+        BatchResult updated = dao.updateAll(cars);
+        long updateStatements = statistics.getPrepareStatementCount();
+        print("updateAll", updated);
+        assertEquals(CARS, updated.processed());
+        assertEquals(cars.get(0).getCc(), dao.findById(cars.get(0).getId()).getCc());
+        //por lote: 1 select dos 50 cars + 1 batch de updates + 1 batch de linhas ob_cars_AUD (Envers), e não 1000 merges
+        assertTrue(updateStatements < 4L * CARS / BATCH_SIZE, "statements: " + updateStatements);
+
+        List<Long> ids = new ArrayList<>(cars.stream().map(Car::getId).toList());
+        ids.add(-1L);//inexistente, ignorado
+        BatchResult deleted = dao.deleteAllById(ids);
+        print("deleteAllById", deleted);
+        assertEquals(CARS, deleted.processed());
+        assertNull(dao.findById(cars.get(CARS - 1).getId()));
+    }
+
+    @Test
+    void nestedCallKeepsTheCallerEntitiesManaged() {
+        Car caller = new Car(null, "Caller", 2.0, 2020);
+        List<Car> cars = List.of(new Car(null, "Nested", 1.0, 2001), new Car(null, "Nested", 1.2, 2002));
+
+        TransactionTemplate.executeWithoutResult(session -> {
+            session.persist(caller);
+            BatchResult result = dao.createAll(cars);
+            assertEquals(2, result.processed());
+            assertTrue(result.commit().isEmpty());//o commit é desta transação, ainda não aconteceu
+            assertTrue(session.contains(caller));//createAll só desanexa os cars que ele gravou
+            assertFalse(session.contains(cars.get(0)));
+        });
+
+        assertEquals(3, dao.deleteAllById(List.of(caller.getId(), cars.get(0).getId(), cars.get(1).getId())).processed());
+        assertEquals(0, dao.createAll(List.of()).processed());
+    }
+
+    @Test
+    void failedBatchIsReportedToTheCaller() {
+        Car existing = dao.create(new Car(null, "Existing", 1.0, 2000));
+        Car caller = new Car(null, "Caller", 2.0, 2020);
+
+        try {
+            //persist de uma entidade detached (já tem id): PersistentObjectException
+            assertThrows(PersistenceException.class, () -> dao.createAll(List.of(existing)));
+
+            assertThrows(PersistenceException.class, () -> TransactionTemplate.executeWithoutResult(session -> {
+                session.persist(caller);
+                dao.createAll(List.of(existing));//aninhada: a exceção chega aqui e a transação inteira é desfeita
+            }));
+            assertNull(dao.findById(caller.getId()));//o insert (IDENTITY) do caller foi desfeito
+        } finally {
+            dao.deleteById(existing.getId());
+        }
+    }
+
+    private static void print(String operation, BatchResult result) {
+        System.out.printf("%s: %d cars em %d lotes, %d ms (lote mais lento %d ms, commit %d ms), %.0f cars/s%n",
+                operation, result.processed(), result.batchDurations().size(), result.total().toMillis(),
+                result.slowestBatch().toMillis(), result.commit().orElse(Duration.ZERO).toMillis(), result.entitiesPerSecond());
+    }
+
+}//class
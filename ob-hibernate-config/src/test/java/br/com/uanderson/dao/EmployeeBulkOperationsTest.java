@@ -0,0 +1,102 @@
+package br.com.uanderson.dao;
+
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.entities.Employee;
+import br.com.uanderson.entities.EmployeeCategory;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para as operações em lote (bulk update/delete)
+ */
+class EmployeeBulkOperationsTest {
+    private static final int EMPLOYEES = 100;
+    private static final int MIN_AGE = 200;//fora das idades do import.sql
+    private static final double SALARY = 1000.0;
+
+    EmployeeDAO dao;
+    List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        dao = new EmployeeDAOImpl();
+        ids = TransactionTemplate.execute(session -> {
+            List<Employee> employees = new ArrayList<>();
+            for (int i = 0; i < EMPLOYEES; i++) {
+                Employee employee = new Employee("Bulk", "Bulk " + i, "bulk" + i + "@example.com",
+                        MIN_AGE + i % 10, SALARY, false, LocalDate.of(1990, 1, 1), LocalDateTime.now());
+                employee.setCategory(EmployeeCategory.ANALYST);
+                employee.getNickNames().add("bulk" + i);
+                employee.getPhones().put("8888-" + i, "Vivo");
+                session.persist(employee);
+                employees.add(employee);
+            }
+            session.flush();
+            return employees.stream().map(Employee::getId).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        dao.deleteByIds(ids);
+    }
+
+    @Test
+    void deleteByIdsRunsOneStatementPerTable() {
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        statistics.clear();
+
+        int deleted = dao.deleteByIds(ids);
+
+        long statements = statistics.getPrepareStatementCount();
+        System.out.println("deletados: " + deleted + " | statements: " + statements);
+        assertEquals(EMPLOYEES, deleted);
+        assertTrue(statements < 10, "um statement por tabela, não por employee: " + statements);
+        assertNull(dao.findById(ids.get(0)));
+        assertEquals(0, dao.deleteByIds(List.of()));
+    }
+
+    @Test
+    void raiseSalaryByCategoryInvalidatesTheSecondLevelCache() {
+        Long id = ids.get(0);
+        dao.findById(id);//coloca o employee no cache de segundo nível
+        assertTrue(HibernateUtil.getSessionFactory().getCache().containsEntity(Employee.class, id));
+
+        int updated = dao.raiseSalaryByCategory(EmployeeCategory.ANALYST, 10);
+
+        assertTrue(updated >= EMPLOYEES);
+        assertFalse(HibernateUtil.getSessionFactory().getCache().containsEntity(Employee.class, id));
+        assertEquals(SALARY * 1.1, dao.findById(id).getSalary(), 0.001);
+        assertThrows(IllegalArgumentException.class, () -> dao.raiseSalaryByCategory(EmployeeCategory.ANALYST, -101));
+        assertThrows(IllegalArgumentException.class, () -> dao.raiseSalaryByCategory(EmployeeCategory.ANALYST, Double.NaN));
+        assertThrows(IllegalArgumentException.class,
+                () -> dao.raiseSalaryByCategory(EmployeeCategory.ANALYST, Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class,
+                () -> dao.raiseSalaryByCategory(EmployeeCategory.ANALYST, Double.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    void updateCategoryWhereAgeBetweenDetachesManagedEmployees() {
+        TransactionTemplate.executeWithoutResult(session -> {
+            Employee managed = session.find(Employee.class, ids.get(0));
+
+            int updated = dao.updateCategoryWhereAgeBetween(MIN_AGE, MIN_AGE + 9, EmployeeCategory.EXECUTIVE);//mesma sessão
+
+            assertEquals(EMPLOYEES, updated);
+            assertFalse(session.contains(managed));//desanexado, não fica com a categoria antiga
+            assertEquals(EmployeeCategory.EXECUTIVE, session.find(Employee.class, ids.get(0)).getCategory());
+        });
+    }
+
+}//class
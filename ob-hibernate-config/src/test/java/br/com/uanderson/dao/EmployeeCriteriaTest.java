@@ -3,12 +3,15 @@ package br.com.uanderson.dao;
 import br.com.uanderson.dao.impl.EmployeeDAOImpl;
 import br.com.uanderson.entities.Employee;
 import br.com.uanderson.entities.EmployeeCategory;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.QueryRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Testes para as operações Criteria
@@ -57,5 +60,20 @@ class EmployeeCriteriaTest {
         System.out.println(employees);
     }
 
+    @Test
+    void registeredQueriesReuseTheQueryPlan() {
+        dao.findByAgeBetweenAndCategoryCriteria(19, 50, EmployeeCategory.JUNIOR);
+        HibernateUtil.getSessionFactory().getStatistics().clear();
+
+        for (int i = 0; i < 100; i++) {
+            dao.findByAgeBetweenAndCategoryCriteria(19 + i % 10, 50, EmployeeCategory.values()[i % 5]);
+        }
+
+        QueryRegistry.PlanCacheStats stats = QueryRegistry.planCacheStats();
+        System.out.println(stats + " taxa de acerto: " + stats.hitRatio());
+        assertEquals(0, stats.misses());//só os parâmetros mudam, o plano é o mesmo
+        assertTrue(stats.hits() >= 100);
+    }
+
 
 }//class
\ No newline at end of file
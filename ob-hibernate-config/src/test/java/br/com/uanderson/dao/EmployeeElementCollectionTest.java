@@ -0,0 +1,115 @@
+package br.com.uanderson.dao;
+
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.entities.Employee;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Hibernate;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a alteração das coleções com @OrderColumn: só as posições alteradas são gravadas.
+ * O batch JDBC é desligado na sessão (setJdbcBatchSize(1)) para cada linha gravada contar como um statement.
+ */
+class EmployeeElementCollectionTest {
+    private static final int NICK_NAMES = 500;
+
+    EmployeeDAO dao;
+    Long id;
+
+    @BeforeEach
+    void setUp() {
+        dao = new EmployeeDAOImpl();
+        id = TransactionTemplate.execute(session -> {
+            Employee employee = new Employee("Nick", "Names", "nicknames@example.com", 30, 3000.0, false,
+                    LocalDate.of(1990, 1, 1), null);
+            for (int i = 0; i < NICK_NAMES; i++) {
+                employee.getNickNames().add("nick" + i);
+            }
+            employee.getPostalCode().addAll(List.of(1000, 2000, 3000));
+            session.persist(employee);
+            return employee.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        dao.deleteByIds(List.of(id));
+    }
+
+    @Test
+    void addNickNameInsertsOnlyTheNewRow() {
+        long statements = countStatements(() -> assertTrue(dao.addNickName(id, "new")));
+        System.out.println("1 apelido adicionado a " + NICK_NAMES + " em " + statements + " statements");
+
+        List<String> nickNames = loadNickNames();
+        assertEquals(NICK_NAMES + 1, nickNames.size());
+        assertEquals("nick0", nickNames.get(0));
+        assertEquals("new", nickNames.get(NICK_NAMES));
+        //select do employee + select da coleção + 1 insert, e não 1 delete + 501 inserts como no bag
+        assertTrue(statements <= 3, "statements: " + statements);
+    }
+
+    @Test
+    void updateNickNamesWritesOnlyTheChangedPositions() {
+        List<String> target = new ArrayList<>(loadNickNames());
+        target.set(10, "changed");
+        target.remove(NICK_NAMES - 1);
+        target.remove(NICK_NAMES - 2);
+
+        long statements = countStatements(() -> assertTrue(dao.updateNickNames(id, target)));
+        System.out.println("1 apelido alterado e 2 removidos em " + statements + " statements");
+
+        assertEquals(target, loadNickNames());
+        //selects + 1 update (posição 10) + 2 deletes (posições 498 e 499)
+        assertTrue(statements <= 5, "statements: " + statements);
+    }
+
+    @Test
+    void updatePostalCodesKeepsTheOrder() {
+        assertTrue(dao.updatePostalCodes(id, List.of(3000, 1000)));
+
+        List<Integer> postalCodes = TransactionTemplate.execute(session -> {
+            Employee employee = session.find(Employee.class, id);
+            Hibernate.initialize(employee.getPostalCode());
+            return employee.getPostalCode();
+        });
+        assertEquals(List.of(3000, 1000), postalCodes);
+        assertFalse(dao.updatePostalCodes(-1L, List.of()));
+    }
+
+    @Test
+    void failedWriteIsReportedToTheCaller() {
+        //nickname maior que a coluna (varchar 255): o insert falha no flush do commit
+        assertThrows(PersistenceException.class, () -> dao.addNickName(id, "x".repeat(300)));
+        assertEquals(NICK_NAMES, loadNickNames().size());
+    }
+
+    private long countStatements(Runnable operation) {
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        statistics.clear();
+        TransactionTemplate.executeWithoutResult(session -> {
+            session.setJdbcBatchSize(1);
+            operation.run();//participa desta sessão, o flush acontece no commit
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<String> loadNickNames() {
+        return TransactionTemplate.execute(session -> {
+            Employee employee = session.find(Employee.class, id);
+            return new ArrayList<>(employee.getNickNames());
+        });
+    }
+
+}//class
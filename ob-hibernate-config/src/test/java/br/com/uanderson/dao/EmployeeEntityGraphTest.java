@@ -0,0 +1,132 @@
+package br.com.uanderson.dao;
+
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.entities.*;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para os grafos de entidade e o @BatchSize do Employee (problema N+1)
+ */
+class EmployeeEntityGraphTest {
+    private static final int EMPLOYEES = 20;
+    private static final int PAGE_SIZE = 20;//até o tamanho do @BatchSize, cada coleção é carregada em um único select
+
+    EmployeeDAO dao;
+    Statistics statistics;
+    List<Long> employeeIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        dao = new EmployeeDAOImpl();
+        statistics = HibernateUtil.getSessionFactory().getStatistics();
+
+        TransactionTemplate.executeWithoutResult(session -> {
+            Company company = new Company(null, "G" + System.nanoTime(), "Graph Company", 100_000.0, 2020);
+            session.persist(company);
+
+            for (int i = 0; i < EMPLOYEES; i++) {
+                Employee employee = new Employee("Graph", "Employee " + i, "graph" + i + "@example.com",
+                        20 + i, 3000.0 + i, i % 2 == 0, LocalDate.of(1990, 1, 1), LocalDateTime.now());
+                Direction direction = new Direction(null, "Rua " + i, "Recife", "Brasil");
+                session.persist(direction);
+                employee.setDirection(direction);
+                employee.setCompany(company);
+                for (int c = 0; c < 2; c++) {
+                    Car car = new Car(null, "Fiat " + c, 1.0, 2020);
+                    session.persist(car);
+                    employee.getCars().add(car);
+                }
+                Project project = new Project(null, "Projeto " + i, LocalDate.now());
+                session.persist(project);
+                employee.getProjects().add(project);
+                employee.getNickNames().add("nick" + i);
+                employee.getPostalCode().add(50000 + i);
+                employee.getCreditCards().add("4111-" + i);
+                employee.getPhones().put("9999-" + i, "Claro");
+                session.persist(employee);
+                employeeIds.add(employee.getId());
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionTemplate.executeWithoutResult(session -> {
+            Company company = null;
+            for (Long id : employeeIds) {
+                Employee employee = session.find(Employee.class, id);
+                company = employee.getCompany();
+                List<Object> associations = new ArrayList<>(employee.getCars());
+                associations.addAll(employee.getProjects());
+                associations.add(employee.getDirection());
+                session.remove(employee);//remove também as linhas das tabelas de junção e das element collections
+                session.flush();
+                associations.forEach(session::remove);
+            }
+            if (company != null) {
+                session.remove(company);
+            }
+        });
+    }
+
+    @Test
+    void withCarsGraphLoadsAPageInABoundedNumberOfStatements() {
+        long statements = countStatements("Employee.withCars");
+
+        //1 select dos ids da página + 1 select dos employees com direction, company e cars (join)
+        //+ 1 select por coleção restante em lote: nickNames, postalCode, creditCards, phones e projects
+        assertEquals(7, statements);
+    }
+
+    @Test
+    void summaryGraphLoadsAPageInABoundedNumberOfStatements() {
+        long statements = countStatements("Employee.summary");
+
+        //1 select dos employees com direction e company (join, paginado no banco)
+        //+ 1 select por coleção em lote: nickNames, postalCode, creditCards, phones, cars e projects
+        assertEquals(7, statements);
+    }
+
+    /**
+     * Carrega a primeira página com o grafo e acessa todas as associações de todos os employees,
+     * na mesma sessão, sem o cache de segundo nível (para contar as idas ao banco)
+     */
+    private long countStatements(String graphName) {
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        statistics.clear();
+
+        int touched = TransactionTemplate.execute(session -> {
+            int count = 0;
+            for (Employee employee : dao.findAllWithGraph(graphName, 0, PAGE_SIZE)) {//aninhada: mesma sessão
+                count += employee.getNickNames().size() + employee.getPostalCode().size()
+                        + employee.getCreditCards().size() + employee.getPhones().size()
+                        + employee.getCars().size() + employee.getProjects().size();
+                if (employee.getDirection() != null) {
+                    employee.getDirection().getCity();
+                }
+                if (employee.getCompany() != null) {
+                    employee.getCompany().getLegalName();
+                }
+            }
+            return count;
+        });
+
+        System.out.printf("%s: %d elementos de coleção, %d statements SQL%n",
+                graphName, touched, statistics.getPrepareStatementCount());
+        assertTrue(touched > 0);
+        return statistics.getPrepareStatementCount();
+    }
+
+}//class
@@ -0,0 +1,166 @@
+package br.com.uanderson.dao;
+
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.entities.*;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import org.hibernate.Hibernate;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Linhas transferidas para carregar um employee com 50 cars e 50 projects:
+ * um único select com join de todas as coleções (produto cartesiano) x um select por coleção (findByIdFullAggregate)
+ */
+class EmployeeFullAggregateLoadTest {
+    private static final int CARS = 50;
+    private static final int PROJECTS = 50;
+    private static final int NICK_NAMES = 3;
+    private static final int POSTAL_CODES = 2;
+    private static final int CREDIT_CARDS = 2;
+    private static final int PHONES = 2;
+    private static final int ITERATIONS = 50;
+
+    /**
+     * O mesmo agregado em um único select: cada coleção multiplica as linhas das outras
+     */
+    private static final String CARTESIAN_SQL = """
+            select e.id, d.id, c.id, car.car_id, p.project_id, n.nickname, pc.postal_code, cc.credit_cards, ph.phone_key
+            from ob_employees e
+            left join ob_directions d on d.id = e.direction_pk
+            left join ob_companies c on c.id = e.company_id
+            left join ob_employee_cars car on car.employee_id = e.id
+            left join ob_employee_projects p on p.employee_id = e.id
+            left join employee_nicknames n on n.employee_id = e.id
+            left join employee_postalcode pc on pc.employee_id = e.id
+            left join employee_creditcards cc on cc.employee_id = e.id
+            left join employee_phones ph on ph.employee_id = e.id
+            where e.id = :pk
+            """;
+
+    EmployeeDAO dao;
+    Long employeeId;
+
+    @BeforeEach
+    void setUp() {
+        dao = new EmployeeDAOImpl();
+        employeeId = TransactionTemplate.execute(session -> {
+            Employee employee = new Employee("Full", "Aggregate", "fullaggregate@example.com",
+                    40, 9000.0, true, LocalDate.of(1984, 3, 10), LocalDateTime.now());
+            Direction direction = new Direction(null, "Rua do Agregado", "Recife", "Brasil");
+            session.persist(direction);
+            employee.setDirection(direction);
+            for (int i = 0; i < CARS; i++) {
+                Car car = new Car(null, "Fiat " + i, 1.0, 2020);
+                session.persist(car);
+                employee.getCars().add(car);
+            }
+            for (int i = 0; i < PROJECTS; i++) {
+                Project project = new Project(null, "Projeto " + i, LocalDate.now());
+                session.persist(project);
+                employee.getProjects().add(project);
+            }
+            for (int i = 0; i < NICK_NAMES; i++) {
+                employee.getNickNames().add("nick" + i);
+            }
+            for (int i = 0; i < POSTAL_CODES; i++) {
+                employee.getPostalCode().add(50000 + i);
+            }
+            for (int i = 0; i < CREDIT_CARDS; i++) {
+                employee.getCreditCards().add("4111-" + i);
+            }
+            for (int i = 0; i < PHONES; i++) {
+                employee.getPhones().put("9999-" + i, "Claro");
+            }
+            session.persist(employee);
+            return employee.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionTemplate.executeWithoutResult(session -> {
+            Employee employee = session.find(Employee.class, employeeId);
+            List<Object> associations = new ArrayList<>(employee.getCars());
+            associations.addAll(employee.getProjects());
+            associations.add(employee.getDirection());
+            session.remove(employee);
+            session.flush();
+            associations.forEach(session::remove);
+        });
+    }
+
+    @Test
+    void fullAggregateTransfersLinearRows() {
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        statistics.clear();
+
+        Employee employee = dao.findByIdFullAggregate(employeeId);
+
+        long statements = statistics.getPrepareStatementCount();
+        //cada select com join fetch de UMA coleção devolve max(1, tamanho da coleção) linhas
+        long splitRows = 1 + rows(employee.getCars().size()) + rows(employee.getProjects().size())
+                + rows(employee.getNickNames().size()) + rows(employee.getPostalCode().size())
+                + rows(employee.getCreditCards().size()) + rows(employee.getPhones().size());
+
+        //detached: as coleções precisam estar inicializadas
+        assertTrue(Hibernate.isInitialized(employee.getCars()));
+        assertTrue(Hibernate.isInitialized(employee.getProjects()));
+        assertTrue(Hibernate.isInitialized(employee.getNickNames()));
+        assertTrue(Hibernate.isInitialized(employee.getPostalCode()));
+        assertTrue(Hibernate.isInitialized(employee.getCreditCards()));
+        assertTrue(Hibernate.isInitialized(employee.getPhones()));
+        assertEquals(CARS, employee.getCars().size());
+        assertEquals(PROJECTS, employee.getProjects().size());
+        assertEquals(7, statements);//1 employee + direction/company, 1 por coleção
+
+        int cartesianRows = cartesianRows();
+        long cartesianNanos = time(() -> cartesianRows());
+        long splitNanos = time(() -> dao.findByIdFullAggregate(employeeId));
+
+        System.out.printf("Produto cartesiano (1 select): %d linhas | %d us por carga%n",
+                cartesianRows, TimeUnit.NANOSECONDS.toMicros(cartesianNanos));
+        System.out.printf("findByIdFullAggregate (%d selects): %d linhas | %d us por carga%n",
+                statements, splitRows, TimeUnit.NANOSECONDS.toMicros(splitNanos));
+
+        assertEquals((long) CARS * PROJECTS * NICK_NAMES * POSTAL_CODES * CREDIT_CARDS * PHONES, cartesianRows);
+        assertTrue(splitRows < cartesianRows);
+    }
+
+    private int cartesianRows() {
+        return TransactionTemplate.execute(session -> session.createNativeQuery(CARTESIAN_SQL, Object[].class)
+                .setParameter("pk", employeeId)
+                .list()
+                .size());
+    }
+
+    /**
+     * @return tempo médio por execução, depois do aquecimento
+     */
+    private static long time(Runnable load) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            load.run();//aquecimento
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            load.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private static long rows(int collectionSize) {
+        return Math.max(1, collectionSize);
+    }
+
+}//class
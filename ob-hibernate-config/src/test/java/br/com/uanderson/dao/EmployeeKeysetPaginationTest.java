@@ -0,0 +1,155 @@
+package br.com.uanderson.dao;
+
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.dto.KeysetPage;
+import br.com.uanderson.entities.Employee;
+import br.com.uanderson.entities.EmployeeCategory;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.QueryRegistry;
+import br.com.uanderson.util.TransactionTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a paginação keyset (seek) dos finders Criteria
+ */
+class EmployeeKeysetPaginationTest {
+    private static final int EMPLOYEES = 250;
+    private static final int PAGE_SIZE = 40;
+    private static final int MIN_AGE = 100;//fora das idades do import.sql
+    private static final int MAX_AGE = 109;
+
+    EmployeeDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new EmployeeDAOImpl();
+        TransactionTemplate.executeWithoutResult(session -> {
+            for (int i = 0; i < EMPLOYEES; i++) {
+                Employee employee = new Employee("Keyset", "Keyset " + (i % 7),//sobrenomes e idades repetidos: o id desempata
+                        "keyset" + i + "@example.com", MIN_AGE + i % 10, 3000.0, false,
+                        LocalDate.of(1990, 1, 1), LocalDateTime.now());
+                employee.setCategory(i % 2 == 0 ? EmployeeCategory.JUNIOR : EmployeeCategory.SENIOR);
+                session.persist(employee);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionTemplate.executeWithoutResult(session -> session
+                .createMutationQuery("delete from Employee e where e.email like 'keyset%@example.com'")
+                .executeUpdate());
+    }
+
+    @Test
+    void findByAgeBetweenCriteriaWalksAllPages() {
+        List<Employee> all = walk(cursor -> dao.findByAgeBetweenCriteria(MIN_AGE, MAX_AGE, cursor, PAGE_SIZE));
+
+        assertEquals(EMPLOYEES, all.size());
+        assertSorted(all, Employee::getAge);
+    }
+
+    @Test
+    void findByAgeGreaterCriteriaWalksAllPages() {
+        List<Employee> all = walk(cursor -> dao.findByAgeGreaterCriteria(MIN_AGE - 1, cursor, PAGE_SIZE));
+
+        assertEquals(EMPLOYEES, all.size());
+        assertSorted(all, Employee::getAge);
+    }
+
+    @Test
+    void findByLastNameLikeCriteriaWalksAllPages() {
+        List<Employee> all = walk(cursor -> dao.findByLastNameLikeCriteria("Keyset ", cursor, PAGE_SIZE));
+
+        assertEquals(EMPLOYEES, all.size());
+        assertSorted(all, Employee::getLastName);
+    }
+
+    @Test
+    void findByAgeBetweenAndCategoryCriteriaMatchesTheUnpagedFinder() {
+        List<Employee> all = walk(cursor ->
+                dao.findByAgeBetweenAndCategoryCriteria(MIN_AGE, MAX_AGE, EmployeeCategory.JUNIOR, cursor, PAGE_SIZE));
+
+        assertEquals(dao.findByAgeBetweenAndCategoryCriteria(MIN_AGE, MAX_AGE, EmployeeCategory.JUNIOR).size(), all.size());
+        assertSorted(all, Employee::getAge);
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> dao.findByAgeGreaterCriteria(MIN_AGE, "não é um cursor", PAGE_SIZE));
+    }
+
+    //primeira página e seguintes são named queries: depois da primeira volta nenhuma página interpreta o HQL de novo
+    @Test
+    void pagesReuseTheQueryPlan() {
+        walk(cursor -> dao.findByAgeBetweenAndCategoryCriteria(MIN_AGE, MAX_AGE, EmployeeCategory.JUNIOR, cursor, PAGE_SIZE));
+        HibernateUtil.getSessionFactory().getStatistics().clear();
+
+        List<Employee> all = walk(cursor ->
+                dao.findByAgeBetweenAndCategoryCriteria(MIN_AGE, MAX_AGE, EmployeeCategory.SENIOR, cursor, PAGE_SIZE));
+
+        QueryRegistry.PlanCacheStats stats = QueryRegistry.planCacheStats();
+        System.out.println(stats + " taxa de acerto: " + stats.hitRatio());
+        assertEquals(EMPLOYEES / 2, all.size());
+        assertEquals(0, stats.misses());
+        assertTrue(stats.hits() >= 4);//4 páginas
+    }
+
+    @Test
+    void sizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> dao.findByAgeGreaterCriteria(MIN_AGE, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> dao.findByLastNameLikeCriteria("Keyset", null, -1));
+    }
+
+    /**
+     * Percorre as páginas seguindo o nextCursor até a última, verificando que nenhum employee se repete
+     */
+    private static List<Employee> walk(Function<String, KeysetPage<Employee>> finder) {
+        List<Employee> all = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            long start = System.nanoTime();
+            KeysetPage<Employee> page = finder.apply(cursor);
+            System.out.printf("página %d: %d employees em %d us%n",
+                    pages, page.content().size(), (System.nanoTime() - start) / 1_000);
+
+            assertTrue(page.content().size() <= PAGE_SIZE);
+            page.content().forEach(employee -> assertTrue(ids.add(employee.getId()), "employee repetido: " + employee.getId()));
+            all.addAll(page.content());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        return all;
+    }
+
+    /**
+     * Ordenado por (sortKey, id)
+     */
+    private static <K extends Comparable<? super K>> void assertSorted(List<Employee> employees, Function<Employee, K> sortKey) {
+        for (int i = 1; i < employees.size(); i++) {
+            Employee previous = employees.get(i - 1);
+            Employee current = employees.get(i);
+            int comparison = sortKey.apply(previous).compareTo(sortKey.apply(current));
+            assertTrue(comparison < 0 || (comparison == 0 && previous.getId() < current.getId()),
+                    "fora de ordem: " + previous.getId() + " -> " + current.getId());
+        }
+    }
+
+}//class
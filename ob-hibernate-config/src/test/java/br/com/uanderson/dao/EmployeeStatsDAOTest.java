@@ -0,0 +1,100 @@
+package br.com.uanderson.dao;
+
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.dao.impl.EmployeeStatsDAOImpl;
+import br.com.uanderson.dto.EmployeeStatsDTO;
+import br.com.uanderson.entities.Company;
+import br.com.uanderson.entities.Employee;
+import br.com.uanderson.entities.EmployeeCategory;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para os agregados do EmployeeStatsDAO
+ */
+class EmployeeStatsDAOTest {
+    private static final int EMPLOYEES = 100;
+
+    Long companyId;
+    List<Long> ids;
+
+    /**
+     * Uma company só para o teste, com 100 employees casados (salários 1000, 2000 ... 100000 e idades 20 a 29)
+     * e 1 employee sem salário nem idade, que não deve mudar nenhum agregado além da quantidade
+     */
+    @BeforeEach
+    void setUp() {
+        ids = new ArrayList<>();
+        companyId = TransactionTemplate.execute(session -> {
+            Company company = new Company(null, "STATS", "Stats Ltda", 1_000_000.0, 2020);
+            session.persist(company);
+            for (int i = 1; i <= EMPLOYEES + 1; i++) {
+                boolean withoutValues = i > EMPLOYEES;
+                Employee employee = new Employee("Stats", "Stats " + i, "stats" + i + "@example.com",
+                        withoutValues ? null : 20 + i % 10, withoutValues ? null : i * 1000.0, true,
+                        LocalDate.of(1990, 1, 1), LocalDateTime.now());
+                employee.setCategory(EmployeeCategory.MANAGER);
+                employee.setCompany(company);
+                session.persist(employee);
+                session.flush();
+                ids.add(employee.getId());
+            }
+            return company.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        new EmployeeDAOImpl().deleteByIds(ids);
+        TransactionTemplate.executeWithoutResult(session -> session.remove(session.find(Company.class, companyId)));
+    }
+
+    @Test
+    void findStatsByCategoryMarriedAndCompany() {
+        List<EmployeeStatsDTO> stats = new EmployeeStatsDAOImpl().findStatsByCategoryMarriedAndCompany();
+        stats.forEach(System.out::println);
+
+        EmployeeStatsDTO group = stats.stream()
+                .filter(s -> companyId.equals(s.companyId()))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(EmployeeCategory.MANAGER, group.category());
+        assertTrue(group.married());
+        assertEquals("Stats Ltda", group.companyName());
+        assertEquals(EMPLOYEES + 1, group.count());
+        assertEquals(new EmployeeStatsDTO.Summary(1000.0, 100_000.0, 50_500.0, 50_000.0, 90_000.0, 99_000.0),
+                group.salary());
+        assertEquals(new EmployeeStatsDTO.Summary(20.0, 29.0, 24.5, 24.0, 28.0, 29.0), group.age());
+    }
+
+    @Test
+    void cachedStatsAreReusedUntilInvalidated() {
+        EmployeeStatsDAO statsDAO = new EmployeeStatsDAOImpl(Duration.ofMinutes(1));
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        statistics.clear();
+
+        List<EmployeeStatsDTO> first = statsDAO.findStatsByCategoryMarriedAndCompany();
+        List<EmployeeStatsDTO> second = statsDAO.findStatsByCategoryMarriedAndCompany();
+
+        assertSame(first, second);
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statsDAO.invalidate();
+        assertNotSame(first, statsDAO.findStatsByCategoryMarriedAndCompany());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+}//class
@@ -0,0 +1,146 @@
+package br.com.uanderson.dao;
+
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.entities.Company;
+import br.com.uanderson.entities.Direction;
+import br.com.uanderson.entities.Employee;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes para a leitura em streaming (ScrollableResults)
+ */
+class EmployeeStreamTest {
+    private static final int TOTAL_ROWS = 1_000_000;
+    private static final int SAMPLE_EVERY = 100_000;
+    private static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;//64MB, 1 milhão de entidades gerenciadas ocupariam bem mais que isso
+    private static final int ASSOCIATED_ROWS = 200;
+
+    EmployeeDAO dao;
+    Long companyId;
+
+    /**
+     * Employees com company e direction (EAGER): sem elas o streaming não mostraria os selects extras por linha
+     */
+    @BeforeEach
+    void setUp() {
+        dao = new EmployeeDAOImpl();
+        companyId = TransactionTemplate.execute(session -> {
+            Company company = new Company(null, "S" + System.nanoTime(), "Stream Company", 100_000.0, 2020);
+            session.persist(company);
+
+            for (int i = 0; i < ASSOCIATED_ROWS; i++) {
+                Direction direction = new Direction(null, "Stream " + i, "Recife", "Brasil");
+                session.persist(direction);
+                Employee employee = new Employee("Stream", "Associated " + i, "stream-associated" + i + "@example.com",
+                        20 + i % 40, 3000.0 + i, i % 2 == 0, LocalDate.of(1990, 1, 1), LocalDateTime.now());
+                employee.setDirection(direction);
+                employee.setCompany(company);
+                session.persist(employee);
+            }
+            return company.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        session.beginTransaction();
+        session.createNativeMutationQuery("DELETE FROM ob_employees WHERE email LIKE 'stream%@example.com'")
+                .executeUpdate();
+        session.createMutationQuery("delete from Direction d where d.street like 'Stream %'").executeUpdate();
+        session.createMutationQuery("delete from Company c where c.id = :id").setParameter("id", companyId).executeUpdate();
+        session.getTransaction().commit();
+        session.close();
+    }
+
+    @Test
+    void forEachWalksOneMillionRowsWithBoundedHeap() {
+        seedEmployees(companyId);
+        long baseline = usedHeapAfterGc();
+        long[] peak = {baseline};
+        long[] visited = {0};
+
+        long total = dao.forEach(EmployeeDAOImpl.DEFAULT_FETCH_SIZE, EmployeeDAOImpl.DEFAULT_CLEAR_EVERY, employee -> {
+            if (++visited[0] % SAMPLE_EVERY == 0) {
+                peak[0] = Math.max(peak[0], usedHeapAfterGc());
+            }
+        });
+
+        long growth = peak[0] - baseline;
+        System.out.println("Employees percorridos: " + total + " | crescimento do heap: " + growth / 1024 + "KB");
+
+        assertTrue(total >= TOTAL_ROWS);
+        assertTrue(growth < MAX_HEAP_GROWTH, "Heap cresceu " + growth + " bytes durante o streaming");
+    }
+
+    //company e direction vêm no mesmo select do cursor (join fetch): 1 statement para a tabela inteira, e não 1 + 2 por linha
+    @Test
+    void streamAllFetchesEagerAssociationsInTheCursorSelect() {
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long[] associated = {0};
+
+        long total = dao.forEach(50, 50, employee -> {
+            if (employee.getCompany() != null && companyId.equals(employee.getCompany().getId())) {
+                assertEquals("Stream Company", employee.getCompany().getLegalName());
+                assertEquals("Recife", employee.getDirection().getCity());
+                associated[0]++;
+            }
+        });
+
+        long statements = statistics.getPrepareStatementCount() - statementsBefore;
+        System.out.println("Employees percorridos: " + total + " | statements: " + statements);
+        assertEquals(ASSOCIATED_ROWS, associated[0]);
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void streamAllMustBeClosed() {
+        try (Stream<Employee> employees = dao.streamAll(500, 500)) {
+            assertEquals(10, employees.limit(10).count());
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Popula a tabela direto no MySQL (CTE recursiva), sem passar 1 milhão de entidades pelo Hibernate.
+     * Todos na mesma company; direction fica null porque o @OneToOne exige uma direction diferente por employee.
+     */
+    private static void seedEmployees(Long companyId) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        session.beginTransaction();
+
+        session.createNativeMutationQuery("SET SESSION cte_max_recursion_depth = " + TOTAL_ROWS).executeUpdate();
+        session.createNativeMutationQuery("""
+                        INSERT INTO ob_employees (first_name, last_name, email, age, salary, married, company_id)
+                        WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < :total)
+                        SELECT CONCAT('Stream', n), 'Doe', CONCAT('stream', n, '@example.com'), 20 + n % 40, 1000 + n % 90000, n % 2, :company
+                        FROM seq
+                        """)
+                .setParameter("total", TOTAL_ROWS)
+                .setParameter("company", companyId)
+                .executeUpdate();
+
+        session.getTransaction().commit();
+        session.close();
+    }
+
+}//class
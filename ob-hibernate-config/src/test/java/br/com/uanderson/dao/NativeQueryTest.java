@@ -2,13 +2,18 @@ package br.com.uanderson.dao;
 
 import br.com.uanderson.dao.impl.EmployeeDAOImpl;
 import br.com.uanderson.dto.EmployeeDTO;
+import br.com.uanderson.dto.EmployeeProjectionColumns;
 import br.com.uanderson.dto.EmployeeProjectionDTO;
 import br.com.uanderson.entities.Employee;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public class NativeQueryTest {
     EmployeeDAOImpl dao;
 
@@ -55,6 +60,23 @@ public class NativeQueryTest {
         System.out.println(employees);
     }
 
+    @Test
+    void findAllProjectionColumnsMatchesTheDtoProjection() {
+        EmployeeProjectionColumns columns = dao.findAllProjectionColumns();
+        List<EmployeeProjectionDTO> employees = dao.findAllProjectionEmployeeNative().stream()
+                .sorted(Comparator.comparing(EmployeeProjectionDTO::id))
+                .toList();
+        System.out.println(columns.size() + " employees: " + Arrays.toString(columns.ids()));
+
+        assertEquals(employees.size(), columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            EmployeeProjectionDTO employee = employees.get(i);
+            assertEquals(employee.id(), columns.ids()[i]);
+            assertEquals(employee.email(), columns.emails()[i]);
+            assertEquals(employee.age() == null ? 0 : employee.age(), columns.ages()[i]);
+        }
+    }
+
 
 
 
@@ -0,0 +1,105 @@
+package br.com.uanderson.dao;
+
+import br.com.uanderson.dao.impl.RevisionHistoryDAOImpl;
+import br.com.uanderson.dto.EntityRevision;
+import br.com.uanderson.dto.KeysetPage;
+import br.com.uanderson.dto.PropertyChange;
+import br.com.uanderson.entities.Company;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import org.hibernate.envers.RevisionType;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para o RevisionHistoryDAO: duas companies com 1 revisão de criação e 4 de alteração do capital cada
+ */
+class RevisionHistoryDAOTest {
+    private static final int UPDATES = 4;
+
+    RevisionHistoryDAO dao;
+    Long firstId;
+    Long secondId;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        dao = new RevisionHistoryDAOImpl();
+        Company first = new Company(null, "REV1", "Revision One Ltda", 1000.0, 2020);
+        Company second = new Company(null, "REV2", "Revision Two Ltda", 2000.0, 2021);
+        TransactionTemplate.executeWithoutResult(session -> {
+            session.persist(first);
+            session.persist(second);
+        });
+        firstId = first.getId();
+        secondId = second.getId();
+
+        for (int i = 1; i <= UPDATES; i++) {
+            Thread.sleep(5);//REVTSTMP tem precisão de milissegundos, uma revisão por instante
+            int revision = i;
+            TransactionTemplate.executeWithoutResult(session -> {//1 revisão alterando as duas companies
+                session.find(Company.class, firstId).setCapital(1000.0 + revision);
+                session.find(Company.class, secondId).setCapital(2000.0 + revision);
+            });
+        }
+    }
+
+    @Test
+    void findRevisionsWalksAllPagesInOrder() {
+        List<EntityRevision<Company>> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<EntityRevision<Company>> page = dao.findRevisions(Company.class, firstId, cursor, 2);
+            System.out.println(page);
+            assertTrue(page.content().size() <= 2);
+            all.addAll(page.content());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(UPDATES + 1, all.size());
+        assertEquals(RevisionType.ADD, all.get(0).type());
+        for (int i = 1; i < all.size(); i++) {
+            assertEquals(RevisionType.MOD, all.get(i).type());
+            assertTrue(all.get(i).revision() > all.get(i - 1).revision());
+            assertEquals(1000.0 + i, all.get(i).state().getCapital());
+        }
+    }
+
+    @Test
+    void findAsOfReturnsEveryIdInOneQuery() {
+        List<EntityRevision<Company>> revisions = dao.findRevisions(Company.class, firstId, null, 10).content();
+        LocalDateTime afterSecondUpdate = revisions.get(2).timestamp();
+
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        statistics.clear();
+        Map<Long, Company> states = dao.findAsOf(Company.class, List.of(firstId, secondId), afterSecondUpdate);
+        System.out.println(states + " em " + statistics.getPrepareStatementCount() + " statements");
+
+        assertEquals(1002.0, states.get(firstId).getCapital());
+        assertEquals(2002.0, states.get(secondId).getCapital());
+        assertEquals(2, statistics.getPrepareStatementCount());//REVINFO + _AUD, independente da quantidade de ids
+        assertTrue(dao.findAsOf(Company.class, List.of(firstId), LocalDateTime.of(2000, 1, 1, 0, 0)).isEmpty());
+    }
+
+    @Test
+    void diffReturnsOnlyTheChangedProperties() {
+        List<EntityRevision<Company>> revisions = dao.findRevisions(Company.class, secondId, null, 10).content();
+
+        List<PropertyChange> changes = dao.diff(Company.class, secondId,
+                revisions.get(0).revision(), revisions.get(UPDATES).revision());
+        System.out.println(changes);
+
+        assertEquals(List.of(new PropertyChange("capital", 2000.0, 2000.0 + UPDATES)), changes);
+        assertTrue(dao.diff(Company.class, secondId, revisions.get(1).revision(), revisions.get(1).revision()).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> dao.diff(Company.class, secondId, revisions.get(0).revision(), Integer.MAX_VALUE));
+    }
+
+}//class
@@ -4,11 +4,20 @@ import br.com.uanderson.dao.CarDAO;
 import br.com.uanderson.dao.EmployeeDAO;
 import br.com.uanderson.dao.impl.CarDAOImpl;
 import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.util.HibernateUtil;
+import br.com.uanderson.util.TransactionTemplate;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  *  REVTYPE:
@@ -21,6 +30,7 @@ import java.time.LocalDateTime;
 class EmployeeEnversTest {
     EmployeeDAO employeeDAO;
     CarDAO carDAO;
+    List<Long> createdIds = new ArrayList<>();//employees criados pelo teste, removidos mesmo se uma asserção falhar
 
     @BeforeEach
     void setup() {
@@ -29,6 +39,13 @@ class EmployeeEnversTest {
 
     }
 
+    @AfterEach
+    void tearDown() {
+        if (!createdIds.isEmpty()) {
+            employeeDAO.deleteByIds(createdIds);
+        }
+    }
+
 
     @Test
     void createEmployee() {
@@ -76,7 +93,42 @@ class EmployeeEnversTest {
 
     }//method
 
-
+    @Test
+    void auditRowsAreWrittenInBatches() {
+        int employees = 50;
+        List<Long> ids = TransactionTemplate.execute(session -> {
+            List<Employee> created = new ArrayList<>();
+            for (int i = 0; i < employees; i++) {
+                Employee employee = new Employee("Audit Batch", "Batch " + i, "auditbatch" + i + "@example.com",
+                        30, 4000.0, false, LocalDate.of(1990, 1, 1), null);
+                session.persist(employee);
+                created.add(employee);
+            }
+            session.flush();
+            return created.stream().map(Employee::getId).toList();
+        });
+        createdIds.addAll(ids);
+
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        statistics.clear();
+
+        TransactionTemplate.executeWithoutResult(session -> session
+                .createQuery("from Employee e where e.id in :ids", Employee.class)
+                .setParameter("ids", ids)
+                .list()
+                .forEach(employee -> employee.setSalary(employee.getSalary() + 500)));//salary é auditado
+
+        long statements = statistics.getPrepareStatementCount();
+        long auditRows = TransactionTemplate.execute(session -> session
+                .createNativeQuery("select count(*) from ob_employees_AUD where id in :ids", Long.class)
+                .setParameter("ids", ids)
+                .getSingleResult());
+        System.out.println(employees + " updates auditados em " + statements + " statements preparados");
+
+        assertEquals(2L * employees, auditRows);//insert (REVTYPE 0) + update (REVTYPE 1)
+        //select + batch de updates + REVINFO + batch de inserts no ob_employees_AUD, e não 1 insert por employee
+        assertTrue(statements < 10, "statements: " + statements);
+    }
 
 
 }//class
\ No newline at end of file
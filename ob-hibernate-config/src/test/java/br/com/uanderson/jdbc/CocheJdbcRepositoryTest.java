@@ -0,0 +1,97 @@
+package br.com.uanderson.jdbc;
+
+import br.com.uanderson.entities.Car;
+import br.com.uanderson.util.HibernateUtil;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para o CocheJdbcRepository.
+ * A tabela coches não é mapeada pelo Hibernate: ela é criada em um banco H2 em memória exclusivo de cada teste
+ * (pool próprio do pooled()), que deixa de existir quando a última conexão fecha. O banco da aplicação não é alterado.
+ */
+class CocheJdbcRepositoryTest {
+    Connection keepAlive;//mantém o banco em memória aberto até o tearDown
+    CocheJdbcRepository repository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        String url = "jdbc:h2:mem:coches-" + System.nanoTime() + ";MODE=MySQL";
+        keepAlive = DriverManager.getConnection(url, "sa", "");
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE coches (
+                        id            INT AUTO_INCREMENT PRIMARY KEY,
+                        modelo        VARCHAR(255) NOT NULL,
+                        fabricante    VARCHAR(255) NOT NULL,
+                        num_cilindros INT          NOT NULL,
+                        num_cv        DOUBLE       NOT NULL
+                    )""");
+            statement.execute("""
+                    INSERT INTO coches (modelo, fabricante, num_cilindros, num_cv)
+                    VALUES ('Modelo A', 'Fabricante X', 4, 150.0),
+                           ('Modelo B', 'Fabricante Y', 6, 250.0),
+                           ('Modelo C', 'Fabricante X', 8, 350.0),
+                           ('Modelo D', 'Fabricante W', 4, 120.0),
+                           ('Modelo E', 'Fabricante V', 6, 200.0)""");
+        }
+        repository = CocheJdbcRepository.pooled(url, "sa", "", 2, 2);//fetch size menor que a tabela: várias idas ao banco
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        repository.close();
+        keepAlive.close();//última conexão: o H2 descarta o banco
+    }
+
+    @Test
+    void findAll() {
+        List<Coche> coches = repository.findAll();
+        System.out.println(coches);
+
+        assertEquals(5, coches.size());
+        assertEquals("Modelo A", coches.get(0).getModelo());
+        assertEquals(350.0, coches.get(2).getNumCv());
+    }
+
+    @Test
+    void findByIdAndFabricante() {
+        Integer id = repository.findAll().get(3).getId();
+
+        assertEquals("Modelo D", repository.findById(id).orElseThrow().getModelo());
+        assertTrue(repository.findById(-1).isEmpty());
+        assertEquals(List.of("Modelo A", "Modelo C"),
+                repository.findByFabricante("Fabricante X").stream().map(Coche::getModelo).toList());
+    }
+
+    //repositório sobre o pool HikariCP do Hibernate, só leitura da tabela ob_cars
+    @Test
+    void queryWithRowMapper() {
+        DataSource dataSource = HibernateUtil.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().requireService(ConnectionProvider.class).unwrap(DataSource.class);
+        CocheJdbcRepository hibernatePool = new CocheJdbcRepository(dataSource, 2);//close() não fecha o pool recebido
+
+        List<Car> cars = hibernatePool.query("SELECT id, manufacturer, cc, release_year FROM ob_cars WHERE cc > ?",
+                (resultSet, rowNum) -> new Car(resultSet.getLong(1), resultSet.getString(2),
+                        resultSet.getDouble(3), resultSet.getInt(4)),
+                0.0);
+        System.out.println(cars);
+
+        cars.forEach(car -> assertTrue(car.getCc() > 0));
+        assertThrows(jakarta.persistence.PersistenceException.class,
+                () -> hibernatePool.query("SELECT * FROM tabela_que_nao_existe", CocheJdbcRepository.COCHE_MAPPER));
+    }
+
+}//class
@@ -0,0 +1,100 @@
+package br.com.uanderson.statistics;
+
+import br.com.uanderson.dao.EmployeeDAO;
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.util.HibernateUtil;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para as estatísticas com eventos JFR e o SlowQueryLog
+ */
+class JfrStatisticsTest {
+    private static final String QUERY_EXECUTION = "br.com.uanderson.hibernate.QueryExecution";
+    private static final String STATISTICS_SNAPSHOT = "br.com.uanderson.hibernate.StatisticsSnapshot";
+
+    SessionFactory sessionFactory;
+    EmployeeDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = HibernateUtil.getSessionFactory();
+        dao = new EmployeeDAOImpl();
+    }
+
+    @Test
+    void queryExecutionsAndSnapshotsAreRecordedInJfr() throws Exception {
+        Path file = Files.createTempFile("hibernate", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(QUERY_EXECUTION);
+            recording.enable(STATISTICS_SNAPSHOT).withPeriod(Duration.ofMillis(100));
+            recording.start();
+
+            dao.findAll();
+            dao.count();
+            Thread.sleep(500);//alguns snapshots periódicos
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        List<RecordedEvent> queries = events.stream()
+                .filter(event -> event.getEventType().getName().equals(QUERY_EXECUTION))
+                .toList();
+        queries.forEach(System.out::println);
+
+        assertTrue(queries.stream().anyMatch(event -> event.getString("query").contains("from Employee")));
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals(STATISTICS_SNAPSHOT)
+                && event.getLong("queryExecutions") > 0));
+    }
+
+    @Test
+    void slowQueryLogKeepsQueriesAboveTheThreshold() {
+        SlowQueryLog slowQueryLog = SlowQueryLog.of(sessionFactory);
+        Duration threshold = slowQueryLog.getThreshold();
+        slowQueryLog.clear();
+
+        try {
+            dao.count();
+            assertTrue(slowQueryLog.entries().isEmpty(), "count não deveria passar de " + threshold);
+
+            slowQueryLog.setThreshold(Duration.ZERO);//todas as consultas são lentas
+            dao.count();
+
+            List<SlowQueryLog.Entry> entries = slowQueryLog.entries();
+            assertEquals(1, entries.size());
+            assertTrue(entries.get(0).query().contains("count"));
+        } finally {
+            slowQueryLog.setThreshold(threshold);
+            slowQueryLog.clear();
+        }
+    }
+
+    @Test
+    void snapshotAndSlowestQueries() {
+        dao.findAll();
+
+        StatisticsSnapshot snapshot = StatisticsSnapshot.of(sessionFactory);
+        List<StatisticsSnapshot.QueryTiming> slowest = StatisticsSnapshot.slowestQueries(sessionFactory.getStatistics(), 5);
+        System.out.println(snapshot);
+        slowest.forEach(System.out::println);
+
+        assertTrue(snapshot.queryExecutions() > 0);
+        assertFalse(slowest.isEmpty());
+        assertTrue(slowest.size() <= 5);
+    }
+
+}//class
@@ -0,0 +1,114 @@
+package br.com.uanderson.util;
+
+import br.com.uanderson.dao.EmployeeDAO;
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.support.ConnectionPoolMetrics;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * EmployeeDAOImpl.findById com 64 threads concorrentes: com o HikariCP nenhuma operação pode falhar por falta de
+ * conexão. Imprime também a latência por operação (média, p50, p99) e as métricas do pool.
+ * <p>
+ * A comparação com e sem pool NÃO é medida por este teste: a SessionFactory é única por JVM e o DAO sempre usa a do
+ * HibernateUtil, então cada execução mede um único pool. A comparação é manual, rodando o teste duas vezes e
+ * comparando as linhas impressas:
+ * <pre>
+ * # com HikariCP (configuração do hibernate.cfg.xml)
+ * mvn test -Dtest=ConnectionPoolConcurrencyTest
+ *
+ * # com o pool interno do Hibernate (DriverManager)
+ * mvn test -Dtest=ConnectionPoolConcurrencyTest \
+ *   -Dhibernate.connection.provider_class=org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl
+ * </pre>
+ */
+class ConnectionPoolConcurrencyTest {
+    private static final int THREADS = 64;
+    private static final int WARMUP_OPERATIONS_PER_THREAD = 200;
+    private static final int OPERATIONS_PER_THREAD = 1_000;
+
+    @Test
+    void findByIdUnder64Threads() throws Exception {
+        EmployeeDAO dao = new EmployeeDAOImpl();
+        String provider = ((SessionFactoryImplementor) HibernateUtil.getSessionFactory())
+                .getServiceRegistry().requireService(ConnectionProvider.class).getClass().getSimpleName();
+
+        run(dao, WARMUP_OPERATIONS_PER_THREAD);//aquecimento do JIT e do pool, descartado
+        long start = System.nanoTime();
+        long[] all = run(dao, OPERATIONS_PER_THREAD);
+        long elapsed = System.nanoTime() - start;
+
+        long[] latencies = Arrays.stream(all).filter(latency -> latency >= 0).sorted().toArray();
+        if (provider.startsWith("Hikari")) {//o pool interno do Hibernate recusa conexões quando esgota, é o esperado
+            assertEquals(0, all.length - latencies.length, "operações sem conexão");
+        }
+        assertNotEquals(0, latencies.length, "todas as operações falharam");
+
+        System.out.printf("%s | %d threads | %d ops | %d falhas | %.0f ops/s | avg %d us | p50 %d us | p99 %d us | max %d us%n",
+                provider, THREADS, latencies.length, all.length - latencies.length,
+                latencies.length / (elapsed / 1_000_000_000.0),
+                micros(Arrays.stream(latencies).sum() / latencies.length),
+                micros(percentile(latencies, 0.50)),
+                micros(percentile(latencies, 0.99)),
+                micros(latencies[latencies.length - 1]));
+        System.out.println("Pool: " + ConnectionPoolMetrics.snapshot());
+    }
+
+    private static long[] run(EmployeeDAO dao, int operationsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                long[] latencies = new long[operationsPerThread];
+                start.await();//todas as threads começam juntas
+                for (int i = 0; i < operationsPerThread; i++) {
+                    long begin = System.nanoTime();
+                    try {
+                        dao.findById((long) (i % 3) + 1);//ids do import.sql
+                        latencies[i] = System.nanoTime() - begin;
+                    } catch (RuntimeException e) {
+                        latencies[i] = -1;//ex: o pool interno do Hibernate recusa a conexão quando esgota
+                    }
+                }
+                return latencies;
+            }));
+        }
+
+        start.countDown();
+        long[] all = new long[THREADS * operationsPerThread];
+        int offset = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return all;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+}//class
@@ -0,0 +1,131 @@
+package br.com.uanderson.util;
+
+import br.com.uanderson.dao.EmployeeDAO;
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.entities.Employee;
+import br.com.uanderson.util.EntityOperationEvents.Event;
+import br.com.uanderson.util.EntityOperationEvents.Operation;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para os contadores e os eventos registrados pelo EmployeeInterceptor
+ */
+class EntityOperationMetricsTest {
+    List<Event> events = new CopyOnWriteArrayList<>();
+    Consumer<Event> collector = events::add;
+
+    @BeforeEach
+    void setUp() {
+        EntityOperationMetrics.reset();
+        EntityOperationEvents.subscribe(collector);
+    }
+
+    @AfterEach
+    void tearDown() {
+        EntityOperationEvents.unsubscribe(collector);
+    }
+
+    @Test
+    void persistUpdateAndDeleteAreCountedAndPublished() throws InterruptedException {
+        EmployeeDAO dao = new EmployeeDAOImpl();
+        Employee employee = dao.create(new Employee("Metrics", "Metrics", "metrics@example.com",
+                30, 3000.0, false, LocalDate.of(1994, 1, 1), LocalDateTime.now()));
+        employee.setSalary(3500.0);
+        dao.update(employee);
+        dao.deleteById(employee.getId());
+
+        assertTrue(EntityOperationEvents.awaitDelivery(5, TimeUnit.SECONDS));
+        EntityOperationMetrics.snapshot().forEach(System.out::println);
+
+        for (Operation operation : Operation.values()) {
+            EntityOperationMetrics.OperationStats stats = EntityOperationMetrics.snapshot().stream()
+                    .filter(s -> s.entity().equals(Employee.class.getName()) && s.operation() == operation)
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(1, stats.count(), operation.name());
+            assertTrue(events.stream().anyMatch(event -> event.operation() == operation
+                    && employee.getId().equals(event.id())), operation.name());
+        }
+    }
+
+    //o interceptor é por sessão: o flush de uma sessão não registra nem descarta as operações de outra da mesma thread
+    @Test
+    void sessionsOnTheSameThreadKeepTheirOwnPendingOperations() {
+        EmployeeDAO dao = new EmployeeDAOImpl();
+        Employee removed = dao.create(new Employee("Metrics", "Removed", "metrics-removed@example.com",
+                30, 3000.0, false, LocalDate.of(1994, 1, 1), LocalDateTime.now()));
+        Employee updated = dao.create(new Employee("Metrics", "Updated", "metrics-updated@example.com",
+                30, 3000.0, false, LocalDate.of(1994, 1, 1), LocalDateTime.now()));
+        EntityOperationMetrics.reset();
+
+        try (Session first = HibernateUtil.getSessionFactory().openSession();
+             Session second = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction firstTx = first.beginTransaction();
+            first.remove(first.find(Employee.class, removed.getId()));//pendente na primeira sessão
+
+            Transaction secondTx = second.beginTransaction();
+            second.find(Employee.class, updated.getId()).setSalary(3500.0);
+            secondTx.commit();//flush da segunda sessão: só o update dela
+
+            firstTx.rollback();//descarta o delete, que não chegou a um flush
+        } finally {
+            dao.deleteByIds(List.of(removed.getId(), updated.getId()));
+        }
+
+        EntityOperationMetrics.snapshot().forEach(System.out::println);
+        assertEquals(1, count(Operation.UPDATE));
+        assertEquals(0, count(Operation.DELETE));
+    }
+
+    @Test
+    void fullQueueDropsEventsInsteadOfBlockingWriters() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Consumer<Event> slowSubscriber = event -> {
+            try {
+                release.await();//segura a thread de entrega: a fila enche
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        EntityOperationEvents.subscribe(slowSubscriber);
+        long droppedBefore = EntityOperationEvents.dropped();
+
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < EntityOperationEvents.CAPACITY * 2; i++) {
+                EntityOperationEvents.publish(new Event("Bench", Operation.PERSIST, (long) i, 0, "test"));
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            System.out.println("publicados em " + elapsedMillis + " ms, descartados: "
+                    + (EntityOperationEvents.dropped() - droppedBefore));
+
+            assertTrue(EntityOperationEvents.dropped() - droppedBefore >= EntityOperationEvents.CAPACITY - 1);
+        } finally {
+            release.countDown();
+            EntityOperationEvents.unsubscribe(slowSubscriber);
+        }
+        assertTrue(EntityOperationEvents.awaitDelivery(10, TimeUnit.SECONDS));
+    }
+
+    private static long count(Operation operation) {
+        return EntityOperationMetrics.snapshot().stream()
+                .filter(s -> s.entity().equals(Employee.class.getName()) && s.operation() == operation)
+                .mapToLong(EntityOperationMetrics.OperationStats::count)
+                .sum();
+    }
+
+}//class
@@ -0,0 +1,56 @@
+package br.com.uanderson.util;
+
+import br.com.uanderson.dao.EmployeeDAO;
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.entities.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para o cache de segundo nível
+ */
+class SecondLevelCacheStatisticsTest {
+    private static final String EMPLOYEE_REGION = "br.com.uanderson.entities.Employee";
+    EmployeeDAO dao;
+    Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        dao = new EmployeeDAOImpl();
+        employee = dao.create(new Employee("Second", "Level", "secondlevel@example.com",
+                30, 5000.0, false, LocalDate.of(1994, 5, 20), LocalDateTime.now()));
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();//o insert já coloca no cache
+        SecondLevelCacheStatistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dao.deleteById(employee.getId());
+    }
+
+    @Test
+    void findByIdHitsTheCacheAfterTheFirstLoad() {
+        dao.findById(employee.getId());//vai ao banco e guarda no cache
+        dao.findById(employee.getId());//nova sessão, vem do cache
+        dao.findById(employee.getId());
+
+        List<SecondLevelCacheStatistics.RegionStats> regions = SecondLevelCacheStatistics.snapshot();
+        regions.forEach(System.out::println);
+
+        SecondLevelCacheStatistics.RegionStats employeeRegion = regions.stream()
+                .filter(region -> region.region().equals(EMPLOYEE_REGION))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, employeeRegion.misses());
+        assertEquals(2, employeeRegion.hits());
+        assertTrue(employeeRegion.evictions() >= 0, "estatísticas JCache desabilitadas no application.conf");
+    }
+
+}//class
@@ -0,0 +1,85 @@
+package br.com.uanderson.util;
+
+import br.com.uanderson.dao.EmployeeDAO;
+import br.com.uanderson.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.entities.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a unidade de trabalho (uma sessão por thread)
+ */
+class TransactionTemplateTest {
+    EmployeeDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        dao = new EmployeeDAOImpl();
+    }
+
+    @Test
+    void deleteByIdReusesTheSameSession() {
+        Employee employee = dao.create(new Employee("Unit", "Of Work", "unitofwork@example.com",
+                30, 5000.0, false, LocalDate.of(1994, 5, 20), LocalDateTime.now()));
+
+        assertTrue(dao.deleteById(employee.getId()));
+
+        //deleteById -> findById: antes eram 2 sessões e 2 conexões
+        TransactionTemplate.OperationStats stats = TransactionTemplate.lastOperationStats();
+        System.out.println(stats);
+        assertEquals(1, stats.sessionsOpened());
+        assertEquals(1, stats.connectionsAcquired());
+    }
+
+    @Test
+    void nestedFailureRollsBackTheWholeOperation() {
+        String email = "nestedrollback@example.com";
+
+        assertThrows(IllegalStateException.class, () -> TransactionTemplate.executeWithoutResult(session -> {
+            session.persist(new Employee("Nested", "Rollback", email,
+                    30, 5000.0, false, LocalDate.of(1994, 5, 20), LocalDateTime.now()));
+
+            TransactionTemplate.executeWithoutResult(nested -> {
+                throw new IllegalStateException("falha na chamada aninhada");
+            });
+        }));
+
+        Long count = TransactionTemplate.execute(session -> session
+                .createQuery("select count(e) from Employee e where e.email = :email", Long.class)
+                .setParameter("email", email)
+                .getSingleResult());
+        assertEquals(0L, count);
+    }
+
+    @Test
+    void swallowedNestedFailureIsReportedToTheOutermostCaller() {
+        Employee employee = dao.create(new Employee("Rollback", "Only", "rollbackonly@example.com",
+                30, 5000.0, false, LocalDate.of(1994, 5, 20), LocalDateTime.now()));
+        String email = "rollbackonly.outer@example.com";
+
+        try {
+            //o create aninhado falha (employee detached) e só imprime a exceção, mas a transação fica rollback-only
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> TransactionTemplate.executeWithoutResult(session -> {
+                        session.persist(new Employee("Rollback", "Outer", email,
+                                30, 5000.0, false, LocalDate.of(1994, 5, 20), LocalDateTime.now()));
+                        dao.create(employee);
+                    }));
+            System.out.println(e.getMessage());
+
+            Long count = TransactionTemplate.execute(session -> session
+                    .createQuery("select count(e) from Employee e where e.email = :email", Long.class)
+                    .setParameter("email", email)
+                    .getSingleResult());
+            assertEquals(0L, count);
+        } finally {
+            dao.deleteById(employee.getId());
+        }
+    }
+
+}//class
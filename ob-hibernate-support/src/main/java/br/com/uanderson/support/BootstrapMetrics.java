@@ -0,0 +1,13 @@
+package br.com.uanderson.support;
+
+/**
+ * Tempos de criação da SessionFactory
+ *
+ * @param metadataBuildMillis       tempo para ler o hibernate.cfg.xml e montar os metadados (mapeamentos)
+ * @param sessionFactoryBuildMillis tempo para construir a SessionFactory a partir dos metadados
+ * @param entityCount               quantidade de entidades mapeadas (inclui as entidades _AUD do Envers, se houver)
+ * @param namedQueryCount           quantidade de named queries HQL registradas
+ */
+public record BootstrapMetrics(long metadataBuildMillis, long sessionFactoryBuildMillis,
+                               int entityCount, int namedQueryCount) {
+}
@@ -0,0 +1,85 @@
+package br.com.uanderson.support;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas do pool de conexões HikariCP.
+ * <p>
+ * O HikariCP instancia essa classe a partir da propriedade hibernate.hikari.metricsTrackerFactory
+ * do hibernate.cfg.xml e avisa a cada conexão obtida, devolvida ou que estourou o timeout.
+ * Como cada aplicação tem um único pool (uma única SessionFactory), os contadores são estáticos.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+    private static final LongAdder ACQUISITIONS = new LongAdder();
+    private static final LongAdder ACQUIRE_NANOS = new LongAdder();
+    private static final LongAccumulator MAX_ACQUIRE_NANOS = new LongAccumulator(Long::max, 0);
+    private static final LongAdder USAGE_MILLIS = new LongAdder();
+    private static final LongAdder TIMEOUTS = new LongAdder();
+    private static volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats stats) {
+        poolStats = stats;
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                ACQUISITIONS.increment();
+                ACQUIRE_NANOS.add(elapsedAcquiredNanos);
+                MAX_ACQUIRE_NANOS.accumulate(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                USAGE_MILLIS.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                TIMEOUTS.increment();
+            }
+        };
+    }
+
+    /**
+     * @return fotografia das métricas do pool no momento da chamada
+     */
+    public static Snapshot snapshot() {
+        long acquisitions = ACQUISITIONS.sum();
+        PoolStats stats = poolStats;
+
+        return new Snapshot(
+                acquisitions,
+                acquisitions == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(ACQUIRE_NANOS.sum() / acquisitions),
+                TimeUnit.NANOSECONDS.toMicros(MAX_ACQUIRE_NANOS.get()),
+                acquisitions == 0 ? 0 : USAGE_MILLIS.sum() / acquisitions,
+                TIMEOUTS.sum(),
+                stats == null ? 0 : stats.getActiveConnections(),
+                stats == null ? 0 : stats.getIdleConnections(),
+                stats == null ? 0 : stats.getTotalConnections(),
+                stats == null ? 0 : stats.getPendingThreads()
+        );
+    }
+
+    /**
+     * @param acquisitions      conexões obtidas do pool
+     * @param avgAcquireMicros  tempo médio de espera para obter uma conexão
+     * @param maxAcquireMicros  maior tempo de espera para obter uma conexão
+     * @param avgUsageMillis    tempo médio que a conexão ficou emprestada
+     * @param timeouts          pedidos que estouraram o connectionTimeout
+     * @param active            conexões em uso agora
+     * @param idle              conexões livres agora
+     * @param total             conexões abertas agora
+     * @param pendingThreads    threads esperando uma conexão agora
+     */
+    public record Snapshot(long acquisitions, long avgAcquireMicros, long maxAcquireMicros, long avgUsageMillis,
+                           long timeouts, int active, int idle, int total, int pendingThreads) {
+    }
+
+}//class
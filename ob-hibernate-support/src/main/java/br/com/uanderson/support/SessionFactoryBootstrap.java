@@ -0,0 +1,166 @@
+package br.com.uanderson.support;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.SessionFactoryBuilder;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Criação da SessionFactory a partir do hibernate.cfg.xml, usada pelo HibernateUtil de cada projeto.
+ * <p>
+ * Mede o tempo de cada etapa (BootstrapMetrics), guarda o HQL das named queries para o warmUp() e aplica as
+ * propriedades de sistema hibernate.* por cima das do xml. Não guarda estado estático: quem garante uma única
+ * SessionFactory é o holder do HibernateUtil.
+ */
+public final class SessionFactoryBootstrap {
+    private static final Logger LOG = LoggerFactory.getLogger(SessionFactoryBootstrap.class);
+
+    private final StandardServiceRegistry registry;//armazena as configurações e serviços do Hibernate.
+    private final SessionFactory sessionFactory;
+    private final BootstrapMetrics metrics;
+    private final Map<String, String> namedQueries;//nome -> HQL das named queries registradas
+
+    private SessionFactoryBootstrap(StandardServiceRegistry registry, SessionFactory sessionFactory,
+                                    BootstrapMetrics metrics, Map<String, String> namedQueries) {
+        this.registry = registry;
+        this.sessionFactory = sessionFactory;
+        this.metrics = metrics;
+        this.namedQueries = namedQueries;
+    }
+
+    public static SessionFactoryBootstrap build() {
+        return build(UnaryOperator.identity(), sessionFactory -> Map.of());
+    }
+
+    /**
+     * @param customizer     ajustes no SessionFactoryBuilder antes do build. O applyInterceptor compartilha uma única
+     *                       instância entre todas as sessões: interceptor com estado deve ser registrado por sessão
+     *                       (hibernate.session_factory.session_scoped_interceptor)
+     * @param namedQueries   chamado com a SessionFactory pronta: registra named queries programáticas e devolve
+     *                       nome -> HQL delas, para o warmUp() e a contagem do BootstrapMetrics
+     * @throws RuntimeException o erro da criação, depois de fechar a SessionFactory (se já criada) e destruir o
+     *                          registro de serviços
+     */
+    public static SessionFactoryBootstrap build(UnaryOperator<SessionFactoryBuilder> customizer,
+                                                Function<SessionFactory, Map<String, String>> namedQueries) {
+        StandardServiceRegistry registry = null;
+        SessionFactory sessionFactory = null;
+        try {
+            long start = System.nanoTime();
+
+            // Create registry default - usando as configurações especificadas no arquivo hibernate.cfg.xml.(então ele deve está criado ok?)
+            registry = new StandardServiceRegistryBuilder()
+                    .configure()
+                    .applySettings(systemOverrides())//ex: -Dhibernate.connection.provider_class=... para trocar o pool sem editar o xml
+                    .build();
+
+            // Create MetadataSources - a partir do registro criado, que contém as configurações do Hibernate
+            MetadataSources sources = new MetadataSources(registry);
+
+            // Create Metadata - que o Hibernate usa para saber como mapear as classes Java para as tabelas do banco de dados
+            Metadata metadata = sources.getMetadataBuilder().build();
+            long metadataBuilt = System.nanoTime();
+
+            // Create SessionFactory - Usa os metadados para construir a SessionFactory.
+            sessionFactory = customizer.apply(metadata.getSessionFactoryBuilder()).build();
+            long sessionFactoryBuilt = System.nanoTime();
+
+            Map<String, String> queries = new LinkedHashMap<>();
+            metadata.visitNamedHqlQueryDefinitions(definition ->
+                    queries.put(definition.getRegistrationName(), definition.getHqlString()));
+            queries.putAll(namedQueries.apply(sessionFactory));
+
+            BootstrapMetrics metrics = new BootstrapMetrics(
+                    TimeUnit.NANOSECONDS.toMillis(metadataBuilt - start),
+                    TimeUnit.NANOSECONDS.toMillis(sessionFactoryBuilt - metadataBuilt),
+                    metadata.getEntityBindings().size(),
+                    queries.size()
+            );
+            LOG.debug("SessionFactory criada: {}", metrics);
+
+            return new SessionFactoryBootstrap(registry, sessionFactory, metrics, Map.copyOf(queries));
+
+        } catch (RuntimeException ex) {
+            if (sessionFactory != null) {
+                sessionFactory.close();//ex: named query programática recusada depois do build
+            }
+            if (registry != null) {
+                StandardServiceRegistryBuilder.destroy(registry);
+                //Destroi o registro de serviços se ele foi criado, para liberar recursos.
+            }
+            throw ex;
+        }
+    }
+
+    public SessionFactory sessionFactory() {
+        return sessionFactory;
+    }
+
+    public BootstrapMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Aquece a SessionFactory: faz o parse de todas as named queries, deixando a interpretação do HQL no cache
+     * de planos. Assim a primeira requisição não paga esse custo.
+     *
+     * @return nomes das named queries aquecidas
+     */
+    public List<String> warmUp() {
+        List<String> warmed = new ArrayList<>();
+
+        try (Session session = sessionFactory.openSession()) {
+            namedQueries.forEach((name, hql) -> {
+                if (isMutation(hql)) {
+                    session.createNamedMutationQuery(name);//valida a named query registrada
+                    session.createMutationQuery(hql);//interpreta o HQL e guarda no cache de interpretação
+                } else {
+                    session.createNamedQuery(name, Object.class);
+                    session.createQuery(hql, Object.class);
+                }
+                warmed.add(name);
+            });
+        }
+
+        return warmed;
+    }
+
+    public void shutdown() {
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    private static boolean isMutation(String hql) {
+        String statement = hql.stripLeading().toLowerCase(Locale.ROOT);
+        return statement.startsWith("update") || statement.startsWith("delete") || statement.startsWith("insert");
+    }
+
+    /**
+     * Propriedades de sistema que começam com "hibernate." sobrescrevem as do hibernate.cfg.xml.
+     * Útil para testes e benchmarks (trocar o pool, a URL do banco etc.)
+     */
+    private static Map<String, Object> systemOverrides() {
+        Map<String, Object> overrides = new HashMap<>();
+        System.getProperties().forEach((key, value) -> {
+            if (key.toString().startsWith("hibernate.")) {
+                overrides.put(key.toString(), value);
+            }
+        });
+        return overrides;
+    }
+
+}//class
@@ -0,0 +1,31 @@
+package br.com.uanderson.insertbatch.benchmark;
+
+import java.util.Map;
+
+/**
+ * Banco H2 em memória (modo PostgreSQL) para os benchmarks.
+ * <p>
+ * O HibernateUtil usa as propriedades de sistema hibernate.* no lugar das do hibernate.cfg.xml, então basta
+ * defini-las antes da primeira chamada ao HibernateUtil.
+ */
+public final class BenchmarkDatabase {
+    private static final Map<String, String> H2_PROPERTIES = Map.of(
+            "hibernate.connection.url", "jdbc:h2:mem:insert-batch;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+            "hibernate.connection.driver_class", "org.h2.Driver",
+            "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+            "hibernate.hbm2ddl.auto", "create"//o hibernate.cfg.xml só valida o schema, e o H2 começa vazio
+    );
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Aponta o Hibernate para o H2, a não ser que outro banco tenha sido informado (-Dhibernate.connection.url=...)
+     */
+    public static void configure() {
+        if (System.getProperty("hibernate.connection.url") == null) {
+            H2_PROPERTIES.forEach(System::setProperty);
+        }
+    }
+
+}//class
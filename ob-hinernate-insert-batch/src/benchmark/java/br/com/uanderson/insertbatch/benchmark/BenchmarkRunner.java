@@ -0,0 +1,43 @@
+package br.com.uanderson.insertbatch.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Main do benchmarks.jar (profile benchmark do pom): aceita as mesmas opções do JMH (ex: um regex com os benchmarks,
+ * -p rows=100000, -wi, -i) e sempre liga o GCProfiler, que informa a taxa de alocação por carga (gc.alloc.rate.norm).
+ * As propriedades -Dhibernate.* são repassadas para os forks (sobrescrevem o H2 do BenchmarkDatabase).
+ * <pre>
+ * mvn -Pbenchmark package -DskipTests
+ * java -jar target/benchmarks.jar                        # todos
+ * java -jar target/benchmarks.jar InsertBatchBenchmark   # só a carga Session x StatelessSession
+ * </pre>
+ * Mesmo setup do BenchmarkRunner do ob-hibernate-benchmark. Os benchmarks deste projeto ficam aqui, e não lá, porque
+ * os dois projetos têm um hibernate.cfg.xml na raiz do classpath.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        List<String> hibernateProperties = new ArrayList<>();
+        System.getProperties().forEach((key, value) -> {
+            if (key.toString().startsWith("hibernate.")) {
+                hibernateProperties.add("-D" + key + "=" + value);
+            }
+        });
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend(hibernateProperties.toArray(String[]::new))
+                .build();
+
+        new Runner(options).run();
+    }
+
+}//class
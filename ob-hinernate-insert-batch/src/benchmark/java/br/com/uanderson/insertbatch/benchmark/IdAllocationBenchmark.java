@@ -0,0 +1,92 @@
+package br.com.uanderson.insertbatch.benchmark;
+
+import br.com.uanderson.insertbatch.dao.EmployeeDAO;
+import br.com.uanderson.insertbatch.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.insertbatch.dto.BulkLoadReport;
+import br.com.uanderson.insertbatch.entities.Employee;
+import br.com.uanderson.insertbatch.id.TunableSequenceGenerator;
+import br.com.uanderson.insertbatch.util.HibernateUtil;
+import br.com.uanderson.insertbatch.util.SequenceCallCounter;
+import org.hibernate.StatelessSession;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga de 1 milhão de employees (saveEmployeesStateless) com allocationSizes diferentes da employee_sequence
+ * (optimizer pooled-lo, ver @TunableSequence). Cada valor de allocationSize roda em um fork próprio, porque o tamanho
+ * do bloco é lido na criação da SessionFactory (-Dhibernate.id.allocation_size.employee_sequence).
+ * <p>
+ * Ao final de cada iteração é impressa a quantidade de chamadas à sequence (SequenceCallCounter), que deve ser
+ * rows / allocationSize.
+ * <pre>
+ * mvn -Pbenchmark package -DskipTests
+ * java -jar target/benchmarks.jar IdAllocationBenchmark -p allocationSize=1,1000
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class IdAllocationBenchmark {
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    int allocationSize;
+
+    @Param({"1000000"})
+    int rows;
+
+    EmployeeDAO dao;
+    int run;//prefixo do email (unique) de cada carga
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.configure();
+        System.setProperty(TunableSequenceGenerator.ALLOCATION_SIZE_PREFIX + "employee_sequence", String.valueOf(allocationSize));
+        dao = new EmployeeDAOImpl();
+        HibernateUtil.getSessionFactory();//cria o schema (e a sequence com INCREMENT BY allocationSize) fora da medição
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounter() {
+        SequenceCallCounter.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printAndTruncate() {
+        System.out.printf("allocationSize %d: %d chamadas à sequence para %d inserts%n",
+                allocationSize, SequenceCallCounter.count(), rows);
+
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            session.beginTransaction();
+            session.createNativeMutationQuery("TRUNCATE TABLE ob_employees").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public BulkLoadReport stateless() {
+        String prefix = "run" + run++ + "-";
+        return dao.saveEmployeesStateless(new AbstractList<>() {
+            @Override
+            public Employee get(int index) {
+                return new Employee(null, "emp" + index, "lastname", prefix + index + "@benchmark.com");
+            }
+
+            @Override
+            public int size() {
+                return rows;
+            }
+        }, 10);
+    }
+
+}//class
@@ -0,0 +1,104 @@
+package br.com.uanderson.insertbatch.benchmark;
+
+import br.com.uanderson.insertbatch.dao.EmployeeDAO;
+import br.com.uanderson.insertbatch.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.insertbatch.dto.BulkLoadReport;
+import br.com.uanderson.insertbatch.entities.Employee;
+import br.com.uanderson.insertbatch.util.HibernateUtil;
+import org.hibernate.StatelessSession;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga de employees com Session (saveEmployeesInChunks: persist + flush/clear a cada lote) x StatelessSession
+ * (saveEmployeesStateless), os dois com batch JDBC, a employee_sequence (allocationSize 100) e commit a cada 10 lotes.
+ * <p>
+ * Cada operação é uma carga completa (SingleShotTime, em ms): linhas/s = rows / score. A taxa de alocação vem do
+ * GCProfiler (gc.alloc.rate em MB/s, gc.alloc.rate.norm em bytes por carga) e também é impressa pelo BulkLoadReport.
+ * Os employees são criados sob demanda, então a lista de 10 milhões não ocupa a heap do benchmark.
+ * <p>
+ * Usa o H2 em memória (modo PostgreSQL), a não ser que outro banco seja informado (ex: o do docker-compose):
+ * <pre>
+ * mvn -Pbenchmark package -DskipTests
+ * java -jar target/benchmarks.jar InsertBatchBenchmark
+ * java -Dhibernate.connection.url=jdbc:postgresql://localhost:5432/db_batch_hibernate ... -jar target/benchmarks.jar InsertBatchBenchmark -p rows=100000
+ * </pre>
+ * O saveEmployees (tudo no mesmo contexto de persistência) fica de fora: com 10 milhões de entidades gerenciadas não
+ * cabe na heap, ver o EmployeeDAOImplTest.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class InsertBatchBenchmark {
+    private static final int COMMIT_EVERY_CHUNKS = 10;
+
+    @Param({"100000", "1000000", "10000000"})
+    int rows;
+
+    EmployeeDAO dao;
+    int run;//prefixo do email (unique) de cada carga
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.configure();
+        dao = new EmployeeDAOImpl();
+        HibernateUtil.getSessionFactory();//cria o schema fora da medição
+    }
+
+    /**
+     * Esvazia a tabela entre as cargas, assim todas inserem na tabela vazia
+     */
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            session.beginTransaction();
+            session.createNativeMutationQuery("TRUNCATE TABLE ob_employees").executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public BulkLoadReport stateful() {
+        return print(dao.saveEmployeesInChunks(employees(), COMMIT_EVERY_CHUNKS));
+    }
+
+    @Benchmark
+    public BulkLoadReport stateless() {
+        return print(dao.saveEmployeesStateless(employees(), COMMIT_EVERY_CHUNKS));
+    }
+
+    /**
+     * Lista de employees criados no get(i), um novo a cada chamada
+     */
+    private List<Employee> employees() {
+        String prefix = "run" + run++ + "-";
+        return new AbstractList<>() {
+            @Override
+            public Employee get(int index) {
+                return new Employee(null, "emp" + index, "lastname", prefix + index + "@benchmark.com");
+            }
+
+            @Override
+            public int size() {
+                return rows;
+            }
+        };
+    }
+
+    private static BulkLoadReport print(BulkLoadReport report) {
+        System.out.println(report);
+        return report;
+    }
+
+}//class
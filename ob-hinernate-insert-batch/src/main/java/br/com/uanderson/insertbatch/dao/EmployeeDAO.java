@@ -1,6 +1,7 @@
 package br.com.uanderson.insertbatch.dao;
 
 
+import br.com.uanderson.insertbatch.dto.BulkLoadReport;
 import br.com.uanderson.insertbatch.entities.Employee;
 
 import java.util.List;
@@ -10,4 +11,25 @@ public interface EmployeeDAO {
 
     void saveEmployees(List<Employee> employees);
 
+    /**
+     * Carga em lotes: a cada hibernate.jdbc.batch_size employees faz flush (um batch JDBC) e clear, então o contexto
+     * de persistência nunca passa de um lote, o tempo cresce de forma linear e a memória não cresce com a carga.
+     * <p>
+     * Com commitEveryChunks > 0, se der erro, só os lotes depois do último commit são desfeitos.
+     *
+     * @param commitEveryChunks faz commit a cada N lotes, 0 para um único commit no final (tudo ou nada)
+     */
+    BulkLoadReport saveEmployeesInChunks(List<Employee> employees, int commitEveryChunks);
+
+    /**
+     * Carga com StatelessSession: sem contexto de persistência (cache de primeiro nível), sem dirty checking, sem
+     * cascades e sem eventos/interceptors do ciclo de vida. Cada insert vai direto para o batch JDBC
+     * (hibernate.jdbc.batch_size) e o id continua vindo da employee_sequence em blocos de 100 (allocationSize).
+     * <p>
+     * Os employees não ficam gerenciados: só serve para inserir, não para alterar depois na mesma sessão.
+     *
+     * @param commitEveryChunks faz commit a cada N lotes, 0 para um único commit no final (tudo ou nada)
+     */
+    BulkLoadReport saveEmployeesStateless(List<Employee> employees, int commitEveryChunks);
+
 }
@@ -1,13 +1,24 @@
 package br.com.uanderson.insertbatch.dao.impl;
 
 import br.com.uanderson.insertbatch.dao.EmployeeDAO;
+import br.com.uanderson.insertbatch.dto.BulkLoadReport;
 import br.com.uanderson.insertbatch.entities.Employee;
 import br.com.uanderson.insertbatch.util.HibernateUtil;
 import org.hibernate.Session;
+import org.hibernate.SharedSessionContract;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public class EmployeeDAOImpl implements EmployeeDAO {
+    static final int DEFAULT_CHUNK_SIZE = 100;//quando o hibernate.jdbc.batch_size não está configurado (ou é 1)
 
 
     @Override
@@ -39,4 +50,106 @@ public class EmployeeDAOImpl implements EmployeeDAO {
 
 
     }
+
+    @Override
+    public BulkLoadReport saveEmployeesInChunks(List<Employee> employees, int commitEveryChunks) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+
+        return load(session, employees, commitEveryChunks, Session::persist, chunkSession -> {
+            //envia os inserts do lote em um batch JDBC e esvazia o contexto de persistência:
+            //o próximo flush não faz dirty checking das entidades dos lotes anteriores
+            chunkSession.flush();
+            chunkSession.clear();
+        });
+    }
+
+    @Override
+    public BulkLoadReport saveEmployeesStateless(List<Employee> employees, int commitEveryChunks) {
+        //sem contexto de persistência: o insert vai direto para o batch JDBC, que é executado quando enche
+        StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession();
+
+        return load(session, employees, commitEveryChunks, StatelessSession::insert, chunkSession -> {
+        });
+    }
+
+    /**
+     * Grava os employees em lotes de hibernate.jdbc.batch_size, medindo o tempo, o pico de heap, os bytes alocados e o
+     * maior número de entidades na sessão. Heap e entidades são medidos no fim de cada lote, antes do endChunk
+     * (flush/clear): é quando o lote inteiro ainda está em memória, o ponto mais alto de cada lote.
+     *
+     * @param write    grava um employee
+     * @param endChunk executado no fim de cada lote, antes do commit
+     */
+    private <S extends SharedSessionContract> BulkLoadReport load(S session, List<Employee> employees, int commitEveryChunks,
+                                                                  BiConsumer<S, Employee> write, Consumer<S> endChunk) {
+        if (commitEveryChunks < 0) {
+            session.close();
+            throw new IllegalArgumentException("commitEveryChunks não pode ser negativo");
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long peakHeap = memory.getHeapMemoryUsage().getUsed();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        int chunkSize = chunkSize(session);
+        int chunks = 0;
+        int commits = 0;
+        int maxManagedEntities = 0;
+
+        try {
+            session.beginTransaction();
+
+            for (int i = 0; i < employees.size(); i++) {
+                write.accept(session, employees.get(i));
+
+                boolean lastEmployee = i + 1 == employees.size();
+                if ((i + 1) % chunkSize == 0 || lastEmployee) {
+                    peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+                    maxManagedEntities = Math.max(maxManagedEntities, managedEntities(session));
+                    endChunk.accept(session);
+                    chunks++;
+
+                    if (commitEveryChunks > 0 && chunks % commitEveryChunks == 0 && !lastEmployee) {
+                        session.getTransaction().commit();
+                        commits++;
+                        session.beginTransaction();
+                    }
+                }
+            }
+
+            session.getTransaction().commit();
+            commits++;
+
+        }catch (RuntimeException e){
+            if (session.getTransaction() != null && session.getTransaction().isActive()){
+                session.getTransaction().rollback();
+            }
+
+            throw e;
+
+        }finally {
+            session.close();
+        }
+
+        return new BulkLoadReport(employees.size(), chunkSize, chunks, commits,
+                Duration.ofNanos(System.nanoTime() - start), peakHeap,
+                threads.getCurrentThreadAllocatedBytes() - allocatedBefore, maxManagedEntities);
+    }
+
+    /**
+     * Entidades no contexto de persistência (na StatelessSession sempre 0)
+     */
+    private static int managedEntities(SharedSessionContract session) {
+        //Session e StatelessSession implementam a SPI SharedSessionContractImplementor
+        return ((SharedSessionContractImplementor) session).getPersistenceContext().getNumberOfManagedEntities();
+    }
+
+    /**
+     * Tamanho do lote = hibernate.jdbc.batch_size, assim cada flush envia um batch JDBC completo
+     */
+    private static int chunkSize(SharedSessionContract session) {
+        int batchSize = session.getFactory().unwrap(SessionFactoryImplementor.class).getSessionFactoryOptions().getJdbcBatchSize();
+        return batchSize > 1 ? batchSize : DEFAULT_CHUNK_SIZE;
+    }
 }//class
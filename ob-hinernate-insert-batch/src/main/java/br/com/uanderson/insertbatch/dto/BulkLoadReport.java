@@ -0,0 +1,49 @@
+package br.com.uanderson.insertbatch.dto;
+
+import java.time.Duration;
+
+/**
+ * Resultado de uma carga em lotes (EmployeeDAO.saveEmployeesInChunks e saveEmployeesStateless)
+ *
+ * @param rows           quantidade de linhas inseridas
+ * @param chunkSize      entidades por lote, igual ao hibernate.jdbc.batch_size
+ * @param chunks         quantidade de lotes
+ * @param commits        quantidade de transações confirmadas
+ * @param elapsed        duração total da carga, incluindo os commits
+ * @param peakHeapBytes  maior uso de heap medido no fim de cada lote (antes do flush/clear)
+ * @param allocatedBytes bytes alocados pela thread da carga (inclui o lixo já coletado)
+ * @param maxManagedEntities maior quantidade de entidades no contexto de persistência no fim de um lote (antes do
+ *                           flush/clear). Até o chunkSize a memória da sessão não cresce com a carga; 0 sem sessão stateful
+ */
+public record BulkLoadReport(int rows, int chunkSize, int chunks, int commits, Duration elapsed, long peakHeapBytes,
+                             long allocatedBytes, int maxManagedEntities) {
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : rows * 1_000_000_000.0 / nanos;
+    }
+
+    public long peakHeapMegabytes() {
+        return peakHeapBytes / (1024 * 1024);
+    }
+
+    /**
+     * @return MB alocados por segundo: quanto maior, mais trabalho para o garbage collector
+     */
+    public double allocationRateMegabytesPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : allocatedBytes / (1024.0 * 1024.0) * 1_000_000_000.0 / nanos;
+    }
+
+    public long allocatedBytesPerRow() {
+        return rows == 0 ? 0 : allocatedBytes / rows;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d linhas em %d lotes de %d e %d commits: %d ms, %.0f linhas/s, pico de heap %d MB, " +
+                        "alocação %.0f MB/s (%d bytes/linha), até %d entidades na sessão",
+                rows, chunks, chunkSize, commits, elapsed.toMillis(), rowsPerSecond(), peakHeapMegabytes(),
+                allocationRateMegabytesPerSecond(), allocatedBytesPerRow(), maxManagedEntities);
+    }
+}
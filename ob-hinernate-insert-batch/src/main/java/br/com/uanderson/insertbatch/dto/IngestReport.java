@@ -0,0 +1,56 @@
+package br.com.uanderson.insertbatch.dto;
+
+import br.com.uanderson.insertbatch.entities.Employee;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Resultado de uma carga do EmployeeIngestPipeline
+ *
+ * @param rows     employees inseridos (confirmados)
+ * @param workers  números de cada worker
+ * @param rejected employees isolados por erro de dados (ex: email repetido), que não entraram na carga
+ * @param elapsed  duração total da carga
+ */
+public record IngestReport(long rows, List<Worker> workers, List<Rejected> rejected, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : rows * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d linhas com %d workers: %d ms, %.0f linhas/s, %d rejeitados",
+                rows, workers.size(), elapsed.toMillis(), rowsPerSecond(), rejected.size());
+    }
+
+    /**
+     * @param name     nome da thread
+     * @param rows     employees inseridos pelo worker
+     * @param chunks   lotes recebidos da fila
+     * @param failures transações desfeitas (tentativas que falharam e partes de lotes divididos)
+     * @param busy     tempo gravando (sem contar a espera na fila)
+     */
+    public record Worker(String name, long rows, long chunks, long failures, Duration busy) {
+
+        public double rowsPerSecond() {
+            long nanos = busy.toNanos();
+            return nanos == 0 ? 0 : rows * 1_000_000_000.0 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d linhas em %d lotes, %d falhas, %d ms gravando, %.0f linhas/s",
+                    name, rows, chunks, failures, busy.toMillis(), rowsPerSecond());
+        }
+    }
+
+    /**
+     * @param employee employee rejeitado (sem id)
+     * @param error    mensagem do erro do banco
+     */
+    public record Rejected(Employee employee, String error) {
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.uanderson.insertbatch.entities;
 
+import br.com.uanderson.insertbatch.id.TunableSequence;
 import jakarta.persistence.*;
 
 import java.io.Serializable;
@@ -11,9 +12,11 @@ public class Employee implements Serializable {
 
     //@Id
    // @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    //@SequenceGenerator(name = "employee_seq", sequenceName = "employee_sequence", allocationSize = 100)
+    //Mesma sequence, com o optimizer pooled-lo e o allocationSize na configuração (hibernate.id.allocation_size.employee_sequence)
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
-    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_sequence", allocationSize = 100)
+    @TunableSequence(name = "employee_sequence")
     private Long id;
 
     @Column(name = "first_name", length = 30, nullable = false)
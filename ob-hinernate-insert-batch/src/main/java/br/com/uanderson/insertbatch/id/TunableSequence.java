@@ -0,0 +1,38 @@
+package br.com.uanderson.insertbatch.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Id gerado por uma sequence com o tamanho do bloco (allocationSize) definido na configuração, e não fixo no código
+ * como no @SequenceGenerator. Usar no lugar de @GeneratedValue + @SequenceGenerator:
+ * <pre>
+ * &#64;Id
+ * &#64;TunableSequence(name = "employee_sequence")
+ * private Long id;
+ * </pre>
+ * O tamanho vem da propriedade hibernate.id.allocation_size.&lt;name&gt; (hibernate.cfg.xml ou -D), ou do
+ * allocationSize da anotação se ela não existir. Ver TunableSequenceGenerator.
+ */
+@IdGeneratorType(TunableSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TunableSequence {
+
+    /**
+     * Nome da sequence no banco
+     */
+    String name();
+
+    /**
+     * Tamanho do bloco quando a propriedade hibernate.id.allocation_size.&lt;name&gt; não está definida
+     */
+    int allocationSize() default 100;
+
+    StandardOptimizerDescriptor optimizer() default StandardOptimizerDescriptor.POOLED_LO;
+}
@@ -0,0 +1,380 @@
+package br.com.uanderson.insertbatch.loader;
+
+import br.com.uanderson.insertbatch.dto.BulkLoadReport;
+import br.com.uanderson.insertbatch.entities.Employee;
+import br.com.uanderson.insertbatch.util.HibernateUtil;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Carga de employees com o COPY ... FROM STDIN do PostgreSQL (CopyManager do driver): as linhas vão em um único fluxo
+ * para o servidor, sem um statement por linha nem por batch. É o caminho mais rápido do PostgreSQL para dezenas de
+ * milhões de linhas, bem mais rápido que o batch JDBC do saveEmployeesInChunks/saveEmployeesStateless.
+ * <p>
+ * O Hibernate não participa: sem entidades gerenciadas, eventos ou validações, só as colunas da tabela ob_employees.
+ * As conexões vêm do pool do Hibernate (HikariCP). Os ids são reservados da employee_sequence em blocos do tamanho do
+ * INCREMENT BY (o mesmo bloco que o optimizer pooled-lo do Employee usa), então o loader e o Hibernate podem gravar na
+ * tabela ao mesmo tempo sem repetir ids. Como não dá para executar outra consulta na conexão enquanto o COPY está
+ * aberto, os blocos são reservados em uma segunda conexão.
+ * <p>
+ * A origem é plugável: um Iterator de employees (gerados, lidos de outro banco...) ou um arquivo CSV.
+ */
+public class CopyEmployeeLoader {
+    public static final int DEFAULT_BLOCKS_PER_FETCH = 100;//blocos de ids reservados a cada ida à sequence
+
+    private static final String SEQUENCE = "employee_sequence";
+    private static final String COPY = "COPY ob_employees (id, first_name, last_name, email) FROM STDIN (FORMAT %s)";
+    private static final String SEQUENCE_INCREMENT = "SELECT increment_by FROM pg_sequences WHERE sequencename = ?";
+    private static final String NEXT_BLOCKS = "SELECT nextval('" + SEQUENCE + "') FROM generate_series(1, ?)";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Formato das linhas enviadas no COPY
+     */
+    public enum Format {
+        /**
+         * Texto CSV: fácil de inspecionar, o servidor faz o parse de cada campo
+         */
+        CSV,
+        /**
+         * Formato binário do COPY: sem parse nem escape de texto, normalmente o mais rápido
+         */
+        BINARY
+    }
+
+    private final ConnectionProvider connectionProvider;
+    private final Format format;
+    private final long rowsPerTransaction;
+
+    /**
+     * @param rowsPerTransaction faz commit (e abre um novo COPY) a cada N linhas, 0 para um único COPY/commit
+     */
+    public CopyEmployeeLoader(Format format, long rowsPerTransaction) {
+        if (rowsPerTransaction < 0) {
+            throw new IllegalArgumentException("rowsPerTransaction não pode ser negativo");
+        }
+        this.connectionProvider = HibernateUtil.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().requireService(ConnectionProvider.class);
+        this.format = format;
+        this.rowsPerTransaction = rowsPerTransaction;
+    }
+
+    /**
+     * Carrega um arquivo CSV sem cabeçalho com as colunas first_name,last_name,email (os ids vêm da sequence).
+     * O arquivo é lido linha a linha, nunca inteiro na memória.
+     */
+    public BulkLoadReport load(Path csvFile) {
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            return load(readCsv(reader));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler " + csvFile, e);
+        }
+    }
+
+    /**
+     * Envia os employees no COPY, definindo o id de cada um
+     *
+     * @throws PersistenceException com a SQLException como causa, as transações anteriores continuam confirmadas
+     */
+    public BulkLoadReport load(Iterator<Employee> employees) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long peakHeap = memory.getHeapMemoryUsage().getUsed();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        int rows = 0;
+        int copies = 0;
+
+        Connection copyConnection = null;
+        Connection sequenceConnection = null;
+        try {
+            copyConnection = connectionProvider.getConnection();
+            copyConnection.setAutoCommit(false);
+            sequenceConnection = connectionProvider.getConnection();
+            sequenceConnection.setAutoCommit(true);//nextval não depende da transação
+            IdBlocks ids = new IdBlocks(sequenceConnection, DEFAULT_BLOCKS_PER_FETCH);
+            PGConnection pgConnection = copyConnection.unwrap(PGConnection.class);
+
+            while (employees.hasNext()) {
+                String sql = COPY.formatted(format.name().toLowerCase());
+                PGCopyOutputStream copy = new PGCopyOutputStream(pgConnection, sql, BUFFER_SIZE);
+                try {
+                    DataOutputStream out = new DataOutputStream(copy);
+                    if (format == Format.BINARY) {
+                        writeBinaryHeader(out);
+                    }
+
+                    long copyRows = 0;
+                    while (employees.hasNext() && (rowsPerTransaction == 0 || copyRows < rowsPerTransaction)) {
+                        Employee employee = employees.next();
+                        employee.setId(ids.next());
+                        if (format == Format.BINARY) {
+                            writeBinaryRow(out, employee);
+                        } else {
+                            out.write(csvRow(employee).getBytes(StandardCharsets.UTF_8));
+                        }
+                        copyRows++;
+                        if (copyRows % 100_000 == 0) {
+                            peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+                        }
+                    }
+
+                    if (format == Format.BINARY) {
+                        out.writeShort(-1);//fim do arquivo binário
+                    }
+                    out.flush();
+                    rows += (int) copy.endCopy();
+                } catch (IOException e) {
+                    throw new SQLException("Erro ao enviar as linhas do COPY", e);
+                } finally {
+                    if (copy.isActive()) {
+                        copy.cancelCopy();
+                    }
+                }
+
+                copyConnection.commit();
+                copies++;
+                peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+            }
+
+        } catch (SQLException e) {
+            rollback(copyConnection);
+            throw new PersistenceException("Erro no COPY de employees", e);
+        } catch (RuntimeException e) {
+            rollback(copyConnection);
+            throw e;
+        } finally {
+            close(sequenceConnection);
+            close(copyConnection);
+        }
+
+        return new BulkLoadReport(rows, rowsPerTransaction == 0 ? rows : (int) Math.min(rowsPerTransaction, rows),
+                copies, copies, Duration.ofNanos(System.nanoTime() - start), peakHeap,
+                threads.getCurrentThreadAllocatedBytes() - allocatedBefore, 0);//sem sessão do Hibernate
+    }
+
+    // ======================= CSV ===============================
+
+    /**
+     * Lê um CSV sem cabeçalho (first_name,last_name,email) sob demanda: uma linha por chamada ao next().
+     * Campos entre aspas podem ter vírgula e aspas duplicadas (""), campo vazio sem aspas é null.
+     */
+    public static Iterator<Employee> readCsv(BufferedReader reader) {
+        return new Iterator<>() {
+            private String line = nextLine();
+
+            @Override
+            public boolean hasNext() {
+                return line != null;
+            }
+
+            @Override
+            public Employee next() {
+                if (line == null) {
+                    throw new NoSuchElementException();
+                }
+                List<String> fields = parseCsvLine(line);
+                if (fields.size() != 3) {
+                    throw new IllegalArgumentException("Esperado first_name,last_name,email: " + line);
+                }
+                line = nextLine();
+                return new Employee(null, fields.get(0), fields.get(1), fields.get(2));
+            }
+
+            private String nextLine() {
+                try {
+                    String next;
+                    do {
+                        next = reader.readLine();
+                    } while (next != null && next.isBlank());
+                    return next;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.isEmpty() && !wasQuoted ? null : field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.isEmpty() && !wasQuoted ? null : field.toString());
+        return fields;
+    }
+
+    /**
+     * Linha no formato CSV do COPY: null é o campo vazio sem aspas, então texto vazio vai entre aspas
+     */
+    static String csvRow(Employee employee) {
+        return employee.getId() + "," + csvField(employee.getFirstName()) + "," + csvField(employee.getLastName())
+                + "," + csvField(employee.getEmail()) + "\n";
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.isEmpty() || value.chars().anyMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    // ======================= BINÁRIO ===============================
+
+    /**
+     * Assinatura PGCOPY\n\377\r\n\0, flags (int32) e tamanho da extensão do cabeçalho (int32)
+     */
+    static void writeBinaryHeader(DataOutputStream out) throws IOException {
+        out.write(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0});
+        out.writeInt(0);
+        out.writeInt(0);
+    }
+
+    /**
+     * Quantidade de campos (int16) e, para cada campo, o tamanho em bytes (int32, -1 para null) seguido do valor
+     */
+    static void writeBinaryRow(DataOutputStream out, Employee employee) throws IOException {
+        out.writeShort(4);
+        out.writeInt(Long.BYTES);
+        out.writeLong(employee.getId());
+        writeBinaryText(out, employee.getFirstName());
+        writeBinaryText(out, employee.getLastName());
+        writeBinaryText(out, employee.getEmail());
+    }
+
+    private static void writeBinaryText(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // ======================= CONEXÕES ===============================
+
+    private static void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                e.printStackTrace();//mantém a exceção original
+            }
+        }
+    }
+
+    private void close(Connection connection) {
+        if (connection != null) {
+            try {
+                connectionProvider.closeConnection(connection);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Ids da employee_sequence em blocos: cada nextval devolve o primeiro id de um bloco de INCREMENT BY ids,
+     * igual ao optimizer pooled-lo do Employee (TunableSequenceGenerator). Vários blocos são reservados em uma única consulta.
+     */
+    static final class IdBlocks {
+        private final Connection connection;
+        private final int blocksPerFetch;
+        private final long increment;
+        private final Deque<Long> blockStarts = new ArrayDeque<>();
+        private long next;
+        private long blockEnd = -1;
+
+        IdBlocks(Connection connection, int blocksPerFetch) throws SQLException {
+            this.connection = connection;
+            this.blocksPerFetch = blocksPerFetch;
+            this.increment = increment(connection);
+        }
+
+        long next() throws SQLException {
+            if (next > blockEnd) {
+                if (blockStarts.isEmpty()) {
+                    fetch();
+                }
+                next = blockStarts.poll();
+                blockEnd = next + increment - 1;
+            }
+            return next++;
+        }
+
+        private void fetch() throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(NEXT_BLOCKS)) {
+                statement.setInt(1, blocksPerFetch);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        blockStarts.add(resultSet.getLong(1));
+                    }
+                }
+            }
+        }
+
+        private static long increment(Connection connection) throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(SEQUENCE_INCREMENT)) {
+                statement.setString(1, SEQUENCE);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        throw new SQLException("Sequence não encontrada: " + SEQUENCE);
+                    }
+                    return resultSet.getLong(1);
+                }
+            }
+        }
+    }
+
+}//class
@@ -0,0 +1,310 @@
+package br.com.uanderson.insertbatch.loader;
+
+import br.com.uanderson.insertbatch.dto.IngestReport;
+import br.com.uanderson.insertbatch.entities.Employee;
+import br.com.uanderson.insertbatch.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Carga de employees em paralelo (produtor/consumidor):
+ * <ul>
+ *     <li>produtores (uma thread por origem) leem/geram os employees e colocam lotes de chunkSize em uma fila limitada.
+ *     Com a fila cheia o produtor espera (back-pressure), então a memória não depende do tamanho da carga</li>
+ *     <li>N workers tiram lotes da fila e gravam cada lote na sua própria StatelessSession e transação, com batch JDBC</li>
+ * </ul>
+ * Um lote que falha é desfeito e:
+ * <ul>
+ *     <li>erro de dados (ex: email repetido, texto maior que a coluna): o lote é dividido ao meio até isolar o employee
+ *     com problema, que vai para os rejeitados. Os outros employees do lote são gravados normalmente</li>
+ *     <li>outro erro (ex: deadlock, conexão perdida): o lote é repetido até maxAttempts vezes, com espera crescente.
+ *     Se todas as tentativas falharem a carga é abortada: banco fora do ar não vira employees rejeitados</li>
+ * </ul>
+ * Assim um email repetido custa algumas transações a mais, e não a carga inteira.
+ * <p>
+ * Se um worker parar (carga abortada ou um Error), os produtores deixam de esperar espaço na fila e o ingest termina
+ * com IllegalStateException, em vez de ficar esperando workers que não existem mais.
+ * <p>
+ * Cada worker usa uma conexão do pool: workers acima do hibernate.hikari.maximumPoolSize (10) só esperam conexão.
+ */
+public class EmployeeIngestPipeline {
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;//lotes na fila
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private static final List<Employee> END = new ArrayList<>();//sinal de fim da fila, comparado por referência
+    private static final long BACKOFF_MILLIS = 100;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;//de quanto em quanto tempo quem espera na fila confere os workers
+
+    private final SessionFactory sessionFactory;
+    private final int workers;
+    private final int chunkSize;
+    private final int queueCapacity;
+    private final int maxAttempts;
+
+    public EmployeeIngestPipeline(int workers, int chunkSize) {
+        this(workers, chunkSize, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * @param workers       threads gravando ao mesmo tempo
+     * @param chunkSize     employees por lote/transação (de preferência múltiplo do hibernate.jdbc.batch_size)
+     * @param queueCapacity lotes que podem esperar na fila antes dos produtores pararem
+     * @param maxAttempts   tentativas de um lote com erro que não é de dados
+     */
+    public EmployeeIngestPipeline(int workers, int chunkSize, int queueCapacity, int maxAttempts) {
+        if (workers < 1 || chunkSize < 1 || queueCapacity < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("workers, chunkSize, queueCapacity e maxAttempts devem ser maiores que zero");
+        }
+        this.sessionFactory = HibernateUtil.getSessionFactory();
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public IngestReport ingest(Iterator<Employee> source) {
+        return ingest(List.of(source));
+    }
+
+    /**
+     * Grava os employees de todas as origens, uma thread produtora por origem
+     *
+     * @throws IllegalStateException se uma origem ou um worker falhar: os lotes já gravados continuam no banco
+     */
+    public IngestReport ingest(List<Iterator<Employee>> sources) {
+        if (sources.isEmpty()) {
+            return new IngestReport(0, List.of(), List.of(), Duration.ZERO);
+        }
+
+        long start = System.nanoTime();
+        BlockingQueue<List<Employee>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Queue<IngestReport.Rejected> rejected = new ConcurrentLinkedQueue<>();
+        AtomicReference<Throwable> workerError = new AtomicReference<>();//primeiro erro que parou um worker
+        ExecutorService producerPool = Executors.newFixedThreadPool(sources.size(), namedThreads("ingest-producer-"));
+        ExecutorService workerPool = Executors.newFixedThreadPool(workers, namedThreads("ingest-worker-"));
+
+        try {
+            List<Future<IngestReport.Worker>> workerResults = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                workerResults.add(workerPool.submit(() -> {
+                    try {
+                        return work(queue, rejected);
+                    } catch (Throwable e) {//inclusive Error: sem esse aviso os produtores esperariam a fila para sempre
+                        workerError.compareAndSet(null, e);
+                        throw e;
+                    }
+                }));
+            }
+
+            List<Future<?>> producerResults = new ArrayList<>();
+            for (Iterator<Employee> source : sources) {
+                producerResults.add(producerPool.submit(() -> {
+                    produce(source, queue, workerError);
+                    return null;
+                }));
+            }
+
+            Throwable producerError = null;
+            for (Future<?> producer : producerResults) {
+                try {
+                    producer.get();
+                } catch (ExecutionException e) {
+                    producerError = e.getCause();
+                }
+            }
+
+            //os workers gravam o que já está na fila e param ao receber o END
+            for (int i = 0; i < workers && workerError.get() == null; i++) {
+                offer(queue, END, workerError);
+            }
+            if (workerError.get() != null) {//não espera os outros workers: os que estão no take() são interrompidos no finally
+                throw new IllegalStateException("Erro em um worker", workerError.get());
+            }
+
+            List<IngestReport.Worker> workerStats = new ArrayList<>();
+            for (Future<IngestReport.Worker> worker : workerResults) {
+                workerStats.add(worker.get());
+            }
+
+            if (producerError != null) {
+                throw new IllegalStateException("Erro ao ler os employees", producerError);
+            }
+
+            return new IngestReport(workerStats.stream().mapToLong(IngestReport.Worker::rows).sum(), workerStats,
+                    List.copyOf(rejected), Duration.ofNanos(System.nanoTime() - start));
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Carga interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro em um worker", e.getCause());
+        } finally {
+            producerPool.shutdownNow();
+            workerPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Agrupa os employees em lotes; espera enquanto a fila estiver cheia e os workers estiverem vivos
+     */
+    private void produce(Iterator<Employee> source, BlockingQueue<List<Employee>> queue,
+                         AtomicReference<Throwable> workerError) throws InterruptedException {
+        List<Employee> chunk = new ArrayList<>(chunkSize);
+        while (source.hasNext() && workerError.get() == null) {
+            chunk.add(source.next());
+            if (chunk.size() == chunkSize) {
+                offer(queue, chunk, workerError);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            offer(queue, chunk, workerError);
+        }
+    }
+
+    /**
+     * put() que desiste se um worker parar: ninguém mais tiraria lotes da fila
+     */
+    private static void offer(BlockingQueue<List<Employee>> queue, List<Employee> item,
+                              AtomicReference<Throwable> workerError) throws InterruptedException {
+        while (!queue.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (workerError.get() != null) {
+                return;
+            }
+        }
+    }
+
+    private IngestReport.Worker work(BlockingQueue<List<Employee>> queue, Queue<IngestReport.Rejected> rejected)
+            throws InterruptedException {
+        WorkerCounters counters = new WorkerCounters();
+
+        for (List<Employee> chunk = queue.take(); chunk != END; chunk = queue.take()) {
+            long start = System.nanoTime();
+            counters.chunks++;
+            insertChunk(chunk, counters, rejected);
+            counters.busyNanos += System.nanoTime() - start;
+        }
+
+        return new IngestReport.Worker(Thread.currentThread().getName(), counters.rows, counters.chunks,
+                counters.failures, Duration.ofNanos(counters.busyNanos));
+    }
+
+    /**
+     * Grava o lote; se falhar, repete (erro transitório) ou divide ao meio até isolar o employee com erro de dados
+     *
+     * @throws IllegalStateException se um erro que não é de dados continuar depois de maxAttempts tentativas
+     */
+    private void insertChunk(List<Employee> chunk, WorkerCounters counters, Queue<IngestReport.Rejected> rejected)
+            throws InterruptedException {
+        RuntimeException error = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            error = tryInsert(chunk);
+            if (error == null) {
+                counters.rows += chunk.size();
+                return;
+            }
+            counters.failures++;
+            if (isDataError(error)) {
+                break;//repetir não resolve
+            }
+            if (attempt < maxAttempts) {
+                Thread.sleep(BACKOFF_MILLIS * attempt);
+            }
+        }
+
+        if (!isDataError(error)) {
+            //o problema não é dos employees (ex: banco fora do ar): rejeitar o lote esconderia a falha
+            throw new IllegalStateException("Lote de " + chunk.size() + " employees falhou " + maxAttempts
+                    + " vezes: " + rootMessage(error), error);
+        }
+        if (chunk.size() == 1) {
+            //employee com problema isolado
+            String message = rootMessage(error);
+            chunk.forEach(employee -> rejected.add(new IngestReport.Rejected(employee, message)));
+            return;
+        }
+
+        int middle = chunk.size() / 2;
+        insertChunk(chunk.subList(0, middle), counters, rejected);
+        insertChunk(chunk.subList(middle, chunk.size()), counters, rejected);
+    }
+
+    /**
+     * Package-private para os testes simularem falhas do banco
+     *
+     * @return null se o lote foi gravado, ou o erro (a transação já foi desfeita e os ids limpos)
+     */
+    RuntimeException tryInsert(List<Employee> chunk) {
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            session.beginTransaction();
+            for (Employee employee : chunk) {
+                session.insert(employee);
+            }
+            session.getTransaction().commit();
+            return null;
+
+        } catch (RuntimeException e) {
+            if (session.getTransaction() != null && session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+            chunk.forEach(employee -> employee.setId(null));//o insert foi desfeito, a próxima tentativa gera outro id
+            return e;
+
+        } finally {
+            session.close();
+        }
+    }
+
+    private static boolean isDataError(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException || cause instanceof DataException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> new Thread(runnable, prefix + count.incrementAndGet());
+    }
+
+    /**
+     * Contadores de um worker: só a thread do worker altera, lidos depois do Future.get()
+     */
+    private static final class WorkerCounters {
+        long rows;
+        long chunks;
+        long failures;
+        long busyNanos;
+    }
+
+}//class
@@ -1,52 +1,59 @@
 package br.com.uanderson.insertbatch.util;
 
+import br.com.uanderson.support.BootstrapMetrics;
+import br.com.uanderson.support.SessionFactoryBootstrap;
 import org.hibernate.SessionFactory;
-import org.hibernate.boot.Metadata;
-import org.hibernate.boot.MetadataSources;
-import org.hibernate.boot.registry.StandardServiceRegistry;
-import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+
+import java.util.List;
 
 /**
  * A classe HibernateUtil é uma utility class que facilita a
  * criação e gerenciamento da SessionFactory do Hibernate, que
  * é essencial para interagir com o banco de dados.
- *
+ * <p>
+ * A SessionFactory é criada uma única vez (Holder idiom), mesmo com várias threads
+ * chamando getSessionFactory() ao mesmo tempo na inicialização. A criação em si (medições,
+ * named queries, warm-up) fica no SessionFactoryBootstrap do ob-hibernate-support.
  */
 public class HibernateUtil {
-    private static StandardServiceRegistry registry;//armazena as configurações e serviços do Hibernate.
-    private static SessionFactory sessionFactory;//é um objeto imutável e compartilhável, utilizado para criar sessões do Hibernate
+    private static volatile SessionFactoryBootstrap bootstrap;//preenchido pelo holder, null até a primeira chamada
+
+    private HibernateUtil() {
+    }
+
+    /**
+     * A JVM só inicializa a classe Holder no primeiro acesso, e a inicialização de classes é
+     * thread-safe por definição. Então não existe como duas threads criarem duas SessionFactories.
+     */
+    private static final class SessionFactoryHolder {
+        private static final SessionFactoryBootstrap BOOTSTRAP = bootstrap = SessionFactoryBootstrap.build();
+    }
 
     public static SessionFactory getSessionFactory() {//Padrão Singleton
-        if (sessionFactory == null){
-            try {
-                // Create registry default - usando as configurações especificadas no arquivo hibernate.cfg.xml.(então ele deve está criado ok?)
-                registry = new StandardServiceRegistryBuilder().configure().build();
-
-                // Create MetadataSources - a partir do registro criado, que contém as configurações do Hibernate
-                MetadataSources sources = new MetadataSources(registry);
-
-                // Create Metadata - que o Hibernate usa para saber como mapear as classes Java para as tabelas do banco de dados
-                Metadata metadata = sources.getMetadataBuilder().build();
-
-                // Create SessionFactory - Usa os metadados para construir a SessionFactory.
-                sessionFactory = metadata.getSessionFactoryBuilder().build();
-
-            } catch (Exception ex) {
-                ex.printStackTrace();
-                if (registry != null) {
-                    StandardServiceRegistryBuilder.destroy(registry);
-                    //Destroi o registro de serviços se ele foi criado, para liberar recursos.
-                }
-            }
-        }
-        return sessionFactory;
+        return SessionFactoryHolder.BOOTSTRAP.sessionFactory();//é um objeto imutável e compartilhável, utilizado para criar sessões do Hibernate
+    }
+
+    /**
+     * @return métricas da criação da SessionFactory (cria a SessionFactory se ainda não existir)
+     */
+    public static BootstrapMetrics getBootstrapMetrics() {
+        return SessionFactoryHolder.BOOTSTRAP.metrics();
+    }
+
+    /**
+     * Aquece a SessionFactory (cria, se necessário, e faz o parse de todas as named queries).
+     * Deve ser chamado na inicialização da aplicação.
+     *
+     * @return nomes das named queries aquecidas
+     */
+    public static List<String> warmUp() {
+        return SessionFactoryHolder.BOOTSTRAP.warmUp();
     }
 
     public static void shutdown(){
-        if (registry != null){
-            StandardServiceRegistryBuilder.destroy(registry);
+        if (bootstrap != null){
+            bootstrap.shutdown();
         }
     }
 
-
 }//class
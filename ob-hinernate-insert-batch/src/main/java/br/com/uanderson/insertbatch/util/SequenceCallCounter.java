@@ -0,0 +1,36 @@
+package br.com.uanderson.insertbatch.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Conta as chamadas às sequences (nextval) feitas pelo Hibernate, para medir o efeito do allocationSize.
+ * <p>
+ * O Hibernate instancia essa classe a partir da propriedade hibernate.session_factory.statement_inspector do
+ * hibernate.cfg.xml e passa para ela todo SQL antes de preparar o statement. O SQL não é alterado.
+ * Como a aplicação tem uma única SessionFactory, o contador é estático.
+ */
+public class SequenceCallCounter implements StatementInspector {
+    //PostgreSQL: select nextval('employee_sequence') / H2: select next value for employee_sequence
+    private static final Pattern SEQUENCE_CALL = Pattern.compile("(?i)\\bnextval\\b|\\bnext value for\\b");
+    private static final LongAdder CALLS = new LongAdder();
+
+    @Override
+    public String inspect(String sql) {
+        if (SEQUENCE_CALL.matcher(sql).find()) {
+            CALLS.increment();
+        }
+        return sql;
+    }
+
+    public static long count() {
+        return CALLS.sum();
+    }
+
+    public static void reset() {
+        CALLS.reset();
+    }
+
+}//class
@@ -0,0 +1,17 @@
+-- Schema do ob-hibernate-insert-batch (PostgreSQL). O hibernate.cfg.xml usa hbm2ddl.auto=validate: o Hibernate só
+-- confere o schema, não cria nem apaga nada. Assim várias instâncias da aplicação podem subir sem recriar as tabelas.
+-- Executado pelo docker-compose.yml na criação do banco (/docker-entrypoint-initdb.d) ou manualmente com psql -f.
+
+-- INCREMENT BY igual ao hibernate.id.allocation_size.employee_sequence (100): cada nextval reserva um bloco de 100 ids
+-- para a instância que chamou (optimizer pooled-lo). Com outro valor a aplicação não sobe
+-- (hibernate.id.sequence.increment_size_mismatch_strategy=EXCEPTION). Para mudar o bloco:
+-- ALTER SEQUENCE employee_sequence INCREMENT BY <novo>; e a propriedade com o mesmo valor em todas as instâncias.
+create sequence if not exists employee_sequence start with 1 increment by 100;
+
+create table if not exists ob_employees (
+    id         bigint       not null,
+    email      varchar(255) unique,
+    first_name varchar(30)  not null,
+    last_name  varchar(255),
+    primary key (id)
+);
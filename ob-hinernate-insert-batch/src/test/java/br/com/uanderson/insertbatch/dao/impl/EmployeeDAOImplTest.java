@@ -2,12 +2,17 @@ package br.com.uanderson.insertbatch.dao.impl;
 
 
 import br.com.uanderson.insertbatch.dao.EmployeeDAO;
+import br.com.uanderson.insertbatch.dto.BulkLoadReport;
 import br.com.uanderson.insertbatch.entities.Employee;
+import br.com.uanderson.insertbatch.util.HibernateUtil;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 class EmployeeDAOImplTest {
 
     //100_000 - 40s
@@ -25,4 +30,97 @@ class EmployeeDAOImplTest {
 
     }
 
+    //flush + clear a cada 100 (hibernate.jdbc.batch_size) e commit a cada 10 lotes
+    @Test
+    void saveEmployeesInChunks(){
+        EmployeeDAO dao =  new EmployeeDAOImpl();
+
+        //20 mil e depois 100 mil: a sessão não pode crescer com a carga
+        List<BulkLoadReport> reports = new ArrayList<>();
+        for (int rows : new int[]{20_000, 100_000}) {
+            List<Employee> employees = new ArrayList<>();
+
+            for (int i = 0; i < rows; i++) {
+                employees.add(new Employee(null, "chunk" + i , "lastname", "chunk" + rows + "-email" + i));
+            }
+
+            BulkLoadReport report = dao.saveEmployeesInChunks(employees, 10);
+            System.out.println(report);
+            reports.add(report);
+
+            assertEquals(rows, report.rows());
+            assertEquals(rows / 100, report.chunks());
+            assertEquals(rows / 1000, report.commits());
+            assertEquals(report.chunkSize(), report.maxManagedEntities());//memória da sessão constante: 1 lote
+            employees.forEach(employee -> assertNotNull(employee.getId()));
+        }
+
+        //tempo por linha das duas cargas só para conferência: medir tempo de parede em teste unitário depende do GC,
+        //do JIT e da carga da máquina. O que garante a sessão constante é o maxManagedEntities acima
+        double small = reports.get(0).elapsed().toNanos() / (double) reports.get(0).rows();
+        double large = reports.get(1).elapsed().toNanos() / (double) reports.get(1).rows();
+        System.out.printf("tempo por linha: %.0f ns (20 mil) x %.0f ns (100 mil)%n", small, large);
+    }
+
+    @Test
+    void saveEmployeesInChunksWithSingleCommit(){
+        EmployeeDAO dao =  new EmployeeDAOImpl();
+
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            employees.add(new Employee(null, "single" + i , "lastname", "single-email" + i));
+        }
+
+        BulkLoadReport report = dao.saveEmployeesInChunks(employees, 0);
+        System.out.println(report);
+
+        assertEquals(3, report.chunks());//100 + 100 + 50
+        assertEquals(1, report.commits());
+        assertThrows(IllegalArgumentException.class, () -> dao.saveEmployeesInChunks(employees, -1));
+    }
+
+    //mesma carga do saveEmployeesInChunks, mas sem contexto de persistência
+    @Test
+    void saveEmployeesStateless(){
+        EmployeeDAO dao =  new EmployeeDAOImpl();
+
+        for (int rows : new int[]{20_000, 100_000}) {
+            List<Employee> employees = new ArrayList<>();
+
+            for (int i = 0; i < rows; i++) {
+                employees.add(new Employee(null, "stateless" + i , "lastname", "stateless" + rows + "-email" + i));
+            }
+
+            BulkLoadReport report = dao.saveEmployeesStateless(employees, 10);
+            System.out.println(report);
+
+            assertEquals(rows, report.rows());
+            assertEquals(rows / 1000, report.commits());
+            assertEquals(0, report.maxManagedEntities());//sem contexto de persistência
+            employees.forEach(employee -> assertNotNull(employee.getId()));
+        }
+    }
+
+    @Test
+    void statelessInsertsAreBatched(){
+        EmployeeDAO dao =  new EmployeeDAOImpl();
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            employees.add(new Employee(null, "batched" + i , "lastname", "batched-email" + i));
+        }
+        dao.saveEmployeesStateless(employees, 0);
+
+        long statements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        System.out.println("statements para 250 employees: " + statements);
+
+        assertEquals(250, statistics.getEntityInsertCount());
+        //3 batches de insert (100 + 100 + 50) + os next value da employee_sequence (1 a cada 100 ids), e não 250 inserts
+        assertTrue(statements < 10, "statements: " + statements);
+    }
+
 }//class
@@ -0,0 +1,133 @@
+package br.com.uanderson.insertbatch.id;
+
+import br.com.uanderson.insertbatch.dao.impl.EmployeeDAOImpl;
+import br.com.uanderson.insertbatch.entities.Employee;
+import br.com.uanderson.insertbatch.util.HibernateUtil;
+import br.com.uanderson.insertbatch.util.SequenceCallCounter;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do @TunableSequence no Employee. Cada "nó" é uma SessionFactory separada no mesmo banco, com o seu próprio
+ * optimizer, como se fosse outra JVM.
+ */
+class TunableSequenceGeneratorTest {
+
+    @Test
+    void pooledLoWithTheConfiguredAllocationSize() {
+        TunableSequenceGenerator generator = (TunableSequenceGenerator) HibernateUtil.getSessionFactory()
+                .unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .getEntityDescriptor(Employee.class).getGenerator();
+
+        assertEquals(100, generator.getAllocationSize());//hibernate.id.allocation_size.employee_sequence no cfg.xml
+        assertInstanceOf(PooledLoOptimizer.class, generator.getOptimizer());
+    }
+
+    @Test
+    void oneSequenceCallPerBlock() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            employees.add(new Employee(null, "emp" + i, "lastname", "tunable" + i));
+        }
+
+        SequenceCallCounter.reset();
+        new EmployeeDAOImpl().saveEmployeesStateless(employees, 0);
+        long calls = SequenceCallCounter.count();
+        System.out.println("chamadas à sequence para 10000 employees: " + calls);
+
+        //100 blocos de 100, +1 se o bloco anterior (de outro teste) ainda tinha ids
+        assertTrue(calls == 100 || calls == 101, "chamadas: " + calls);
+    }
+
+    @Test
+    void severalNodesNeverRepeatIds() throws Exception {
+        HibernateUtil.getSessionFactory();//cria as tabelas
+        List<SessionFactory> nodes = List.of(HibernateUtil.getSessionFactory(), startNode(Map.of()), startNode(Map.of()));
+        ExecutorService pool = Executors.newFixedThreadPool(nodes.size());
+
+        try {
+            List<Future<List<Long>>> results = new ArrayList<>();
+            for (int node = 0; node < nodes.size(); node++) {
+                SessionFactory sessionFactory = nodes.get(node);
+                String prefix = "node" + node + "-";
+                results.add(pool.submit(() -> insert(sessionFactory, prefix, 5_000)));
+            }
+
+            Set<Long> ids = new HashSet<>();
+            for (Future<List<Long>> result : results) {
+                ids.addAll(result.get());
+            }
+            assertEquals(15_000, ids.size());
+        } finally {
+            pool.shutdown();
+            nodes.subList(1, nodes.size()).forEach(SessionFactory::close);
+        }
+    }
+
+    //bloco de 1000 com a sequence incrementando de 100: repetiria ids dos outros nós, então não sobe
+    @Test
+    void nodeWithAllocationSizeDifferentFromTheSequenceDoesNotStart() {
+        HibernateUtil.getSessionFactory();//cria a employee_sequence com INCREMENT BY 100
+
+        Exception error = assertThrows(Exception.class,
+                () -> startNode(Map.of(TunableSequenceGenerator.ALLOCATION_SIZE_PREFIX + "employee_sequence", "1000")));
+        System.out.println(error.getMessage());
+        assertTrue(error.getMessage().contains("employee_sequence"), error.getMessage());
+    }
+
+    private static List<Long> insert(SessionFactory sessionFactory, String prefix, int rows) {
+        List<Long> ids = new ArrayList<>();
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < rows; i++) {
+                Employee employee = new Employee(null, "emp" + i, "lastname", prefix + i);
+                session.insert(employee);
+                ids.add(employee.getId());
+            }
+            session.getTransaction().commit();
+        }
+        return ids;
+    }
+
+    /**
+     * Outra SessionFactory no mesmo banco, sem recriar as tabelas
+     */
+    private static SessionFactory startNode(Map<String, String> settings) {
+        Map<String, Object> overrides = new HashMap<>();
+        System.getProperties().forEach((key, value) -> {
+            if (key.toString().startsWith("hibernate.")) {
+                overrides.put(key.toString(), value);
+            }
+        });
+        overrides.put(AvailableSettings.HBM2DDL_AUTO, "none");
+        overrides.putAll(settings);
+
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder().configure().applySettings(overrides).build();
+        try {
+            return new MetadataSources(registry).buildMetadata().buildSessionFactory();
+        } catch (RuntimeException e) {
+            StandardServiceRegistryBuilder.destroy(registry);
+            throw e;
+        }
+    }
+
+}//class
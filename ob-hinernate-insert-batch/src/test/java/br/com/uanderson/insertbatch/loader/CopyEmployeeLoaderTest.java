@@ -0,0 +1,162 @@
+package br.com.uanderson.insertbatch.loader;
+
+import br.com.uanderson.insertbatch.dto.BulkLoadReport;
+import br.com.uanderson.insertbatch.entities.Employee;
+import br.com.uanderson.insertbatch.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Testes do CopyEmployeeLoader. Os formatos CSV e binário são testados sem banco, a carga só no PostgreSQL
+ * (o do docker-compose.yml): com outro banco (ex: -Dhibernate.connection.url=jdbc:h2:...) esses testes são ignorados.
+ */
+class CopyEmployeeLoaderTest {
+
+    @Test
+    void csvRowQuotesOnlyWhenNeeded() {
+        assertEquals("7,Ana,Silva,ana@mail.com\n", CopyEmployeeLoader.csvRow(new Employee(7L, "Ana", "Silva", "ana@mail.com")));
+        assertEquals("8,\"Silva, Ana\",\"\",\n", CopyEmployeeLoader.csvRow(new Employee(8L, "Silva, Ana", "", null)));
+        assertEquals("9,\"O \"\"Rei\"\"\",x,y\n", CopyEmployeeLoader.csvRow(new Employee(9L, "O \"Rei\"", "x", "y")));
+    }
+
+    @Test
+    void readCsvParsesQuotesAndNulls() {
+        String csv = """
+                Ana,Silva,ana@mail.com
+                "Silva, Ana","",
+
+                "O \"\"Rei\"\"",x,y
+                """;
+        Iterator<Employee> employees = CopyEmployeeLoader.readCsv(new BufferedReader(new StringReader(csv)));
+
+        Employee ana = employees.next();
+        assertEquals("Ana", ana.getFirstName());
+        assertEquals("ana@mail.com", ana.getEmail());
+        Employee quoted = employees.next();
+        assertEquals("Silva, Ana", quoted.getFirstName());
+        assertEquals("", quoted.getLastName());//"" é texto vazio
+        assertNull(quoted.getEmail());//vazio sem aspas é null
+        assertEquals("O \"Rei\"", employees.next().getFirstName());
+        assertFalse(employees.hasNext());//a linha em branco é ignorada
+    }
+
+    @Test
+    void binaryRowLayout() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        CopyEmployeeLoader.writeBinaryHeader(out);
+        CopyEmployeeLoader.writeBinaryRow(out, new Employee(42L, "Zé", "Lima", null));
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        byte[] signature = new byte[11];
+        buffer.get(signature);
+        assertArrayEquals(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0}, signature);
+        assertEquals(0, buffer.getInt());//flags
+        assertEquals(0, buffer.getInt());//extensão do cabeçalho
+
+        assertEquals(4, buffer.getShort());//campos
+        assertEquals(8, buffer.getInt());
+        assertEquals(42L, buffer.getLong());
+        byte[] firstName = new byte[buffer.getInt()];
+        buffer.get(firstName);
+        assertEquals("Zé", new String(firstName, StandardCharsets.UTF_8));//tamanho em bytes UTF-8, não em chars
+        byte[] lastName = new byte[buffer.getInt()];
+        buffer.get(lastName);
+        assertEquals("Lima", new String(lastName, StandardCharsets.UTF_8));
+        assertEquals(-1, buffer.getInt());//email null
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void loadIteratorInBinary() {
+        assumePostgres();
+        int rows = 100_000;
+        List<Employee> employees = employees("copy-binary", rows);
+
+        BulkLoadReport report = new CopyEmployeeLoader(CopyEmployeeLoader.Format.BINARY, 30_000).load(employees.iterator());
+        System.out.println(report);
+
+        assertEquals(rows, report.rows());
+        assertEquals(4, report.commits());//30 + 30 + 30 + 10 mil
+        assertEquals(rows, new HashSet<>(employees.stream().map(Employee::getId).toList()).size());
+        assertEquals(rows, countByEmailPrefix("copy-binary"));
+    }
+
+    @Test
+    void loadCsvFile(@TempDir Path directory) throws IOException {
+        assumePostgres();
+        Path file = directory.resolve("employees.csv");
+        Files.write(file, IntStream.range(0, 10_000)
+                .mapToObj(i -> "emp" + i + ",\"Sobrenome, " + i + "\",copy-csv" + i + "@mail.com")
+                .toList());
+
+        BulkLoadReport report = new CopyEmployeeLoader(CopyEmployeeLoader.Format.CSV, 0).load(file);
+        System.out.println(report);
+
+        assertEquals(10_000, report.rows());
+        assertEquals(1, report.commits());
+        assertEquals(10_000, countByEmailPrefix("copy-csv"));
+    }
+
+    @Test
+    void loaderAndHibernateShareTheSequenceWithoutRepeatingIds() {
+        assumePostgres();
+        List<Employee> copied = employees("copy-shared", 250);
+        new CopyEmployeeLoader(CopyEmployeeLoader.Format.BINARY, 0).load(copied.iterator());
+
+        List<Employee> persisted = employees("hibernate-shared", 250);
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.beginTransaction();
+            persisted.forEach(session::persist);
+            session.getTransaction().commit();
+        }
+
+        List<Long> ids = new ArrayList<>(copied.stream().map(Employee::getId).toList());
+        ids.addAll(persisted.stream().map(Employee::getId).toList());
+        assertEquals(500, new HashSet<>(ids).size(), Arrays.toString(ids.toArray()));
+    }
+
+    private static List<Employee> employees(String emailPrefix, int rows) {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            employees.add(new Employee(null, "emp" + i, "lastname", emailPrefix + i + "@mail.com"));
+        }
+        return employees;
+    }
+
+    private static long countByEmailPrefix(String prefix) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery("select count(e) from Employee e where e.email like :prefix", Long.class)
+                    .setParameter("prefix", prefix + "%")
+                    .getSingleResult();
+        }
+    }
+
+    private static void assumePostgres() {
+        assumeTrue(HibernateUtil.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect, "COPY só existe no PostgreSQL");
+    }
+
+}//class
@@ -0,0 +1,122 @@
+package br.com.uanderson.insertbatch.loader;
+
+import br.com.uanderson.insertbatch.dto.IngestReport;
+import br.com.uanderson.insertbatch.entities.Employee;
+import br.com.uanderson.insertbatch.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.exception.JDBCConnectionException;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do EmployeeIngestPipeline: 4 workers, lotes de 1000 (10 batches JDBC de 100)
+ */
+class EmployeeIngestPipelineTest {
+
+    //um email repetido e um first_name maior que a coluna (30) no meio de 100 mil: só os 2 ficam de fora
+    @Test
+    void poisonRecordsAreIsolated() {
+        int rows = 100_000;
+        Iterator<Employee> source = IntStream.range(0, rows).mapToObj(i -> {
+            String email = i == 50_010 ? "pipeline-email10" : "pipeline-email" + i;//repete o email do employee 10
+            String firstName = i == 70_000 ? "x".repeat(31) : "emp" + i;
+            return new Employee(null, firstName, "lastname", email);
+        }).iterator();
+
+        IngestReport report = new EmployeeIngestPipeline(4, 1000).ingest(source);
+        System.out.println(report);
+        report.workers().forEach(System.out::println);
+        report.rejected().forEach(rejected -> System.out.println("rejeitado: " + rejected));
+
+        assertEquals(rows - 2, report.rows());
+        assertEquals(4, report.workers().size());
+        assertEquals(rows / 1000, report.workers().stream().mapToLong(IngestReport.Worker::chunks).sum());
+        assertEquals(List.of("emp70000", "emp50010").stream().sorted().toList(),
+                report.rejected().stream().map(rejected -> rejected.employee().getFirstName().startsWith("xxx")
+                        ? "emp70000" : rejected.employee().getFirstName()).sorted().toList());
+        report.rejected().forEach(rejected -> assertNull(rejected.employee().getId()));
+        assertEquals(rows - 2, countByEmailPrefix("pipeline-email"));
+    }
+
+    @Test
+    void sourceErrorKeepsTheChunksAlreadyWritten() {
+        Iterator<Employee> failing = IntStream.range(0, 10_000).mapToObj(i -> {
+            if (i == 5_000) {
+                throw new IllegalArgumentException("linha inválida: " + i);
+            }
+            return new Employee(null, "emp" + i, "lastname", "pipeline-failing" + i);
+        }).iterator();
+        Iterator<Employee> other = IntStream.range(0, 3_000)
+                .mapToObj(i -> new Employee(null, "emp" + i, "lastname", "pipeline-other" + i)).iterator();
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> new EmployeeIngestPipeline(2, 500).ingest(List.of(failing, other)));
+
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertEquals(5_000, countByEmailPrefix("pipeline-failing"));//os 10 lotes completos antes do erro
+        assertEquals(3_000, countByEmailPrefix("pipeline-other"));//a outra origem termina normalmente
+    }
+
+    //um Error no worker: sem ninguém tirando lotes da fila, os produtores e o ingest ficariam esperando para sempre
+    @Test
+    void workerErrorDoesNotHangTheIngest() {
+        EmployeeIngestPipeline pipeline = new EmployeeIngestPipeline(2, 100, 2, 1) {
+            @Override
+            RuntimeException tryInsert(List<Employee> chunk) {
+                throw new OutOfMemoryError("simulado");
+            }
+        };
+
+        IllegalStateException error = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> assertThrows(IllegalStateException.class, () -> pipeline.ingest(employees("pipeline-error", 100_000))));
+
+        assertInstanceOf(OutOfMemoryError.class, error.getCause());
+    }
+
+    //banco fora do ar não é erro de dados: a carga é abortada e nenhum employee vai para os rejeitados
+    @Test
+    void nonDataErrorAbortsTheIngest() {
+        EmployeeIngestPipeline pipeline = new EmployeeIngestPipeline(2, 100, 2, 2) {
+            @Override
+            RuntimeException tryInsert(List<Employee> chunk) {
+                return new JDBCConnectionException("conexão recusada", new SQLException("Connection refused", "08001"));
+            }
+        };
+
+        IllegalStateException error = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> assertThrows(IllegalStateException.class, () -> pipeline.ingest(employees("pipeline-down", 10_000))));
+
+        System.out.println(error.getCause().getMessage());
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertInstanceOf(JDBCConnectionException.class, error.getCause().getCause());
+    }
+
+    @Test
+    void noSources() {
+        IngestReport report = new EmployeeIngestPipeline(2, 100).ingest(List.of());
+
+        assertEquals(0, report.rows());
+        assertTrue(report.rejected().isEmpty());
+    }
+
+    private static Iterator<Employee> employees(String emailPrefix, int rows) {
+        return IntStream.range(0, rows)
+                .mapToObj(i -> new Employee(null, "emp" + i, "lastname", emailPrefix + i)).iterator();
+    }
+
+    private static long countByEmailPrefix(String prefix) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery("select count(e) from Employee e where e.email like :prefix", Long.class)
+                    .setParameter("prefix", prefix + "%")
+                    .getSingleResult();
+        }
+    }
+
+}//class